@@ -2,9 +2,12 @@ package com.example.stoic.Comment.Controller;
 
 import com.example.stoic.Comment.Model.Comment;
 import com.example.stoic.Comment.Repo.CommentRepo;
+import com.example.stoic.Comment.Service.CommentSummary;
+import com.example.stoic.Comment.Service.ReportResult;
 import com.example.stoic.Comment.Service.commentserviceimpl;
 import com.example.stoic.Notification.Model.NotificationType;
-import com.example.stoic.Notification.Service.NotificationService;
+import com.example.stoic.Notification.Service.NotificationJob;
+import com.example.stoic.Notification.Service.NotificationJobQueue;
 import com.example.stoic.Post.Model.Post;
 import com.example.stoic.Post.Repo.PostRepo;
 import com.example.stoic.Post.Service.PostServiceImpl;
@@ -26,6 +29,8 @@ import jakarta.servlet.http.HttpSession;
 import com.example.stoic.User.Model.User;
 import com.example.stoic.User.Model.UserRole;
 import com.example.stoic.User.Service.UserServiceImpl;
+import com.example.stoic.common.CursorPage;
+import com.example.stoic.common.LikeToggle;
 
 @CrossOrigin(origins = {
        " ${UserIphttp}",
@@ -38,14 +43,14 @@ public class CommentController {
     private final PostServiceImpl PostServiceImpl;
     private final commentserviceimpl commentserviceimpl;
     private final CommentRepo commentRepo;
-    private final NotificationService notificationService;
+    private final NotificationJobQueue notificationJobs;
 
     public CommentController(commentserviceimpl commentserviceimpl, PostServiceImpl PostServiceImpl,
-            CommentRepo commentRepo,NotificationService notificationService) {
+            CommentRepo commentRepo, NotificationJobQueue notificationJobs) {
         this.commentserviceimpl = commentserviceimpl;
         this.PostServiceImpl = PostServiceImpl;
         this.commentRepo = commentRepo;
-        this.notificationService=notificationService;
+        this.notificationJobs = notificationJobs;
     }
 
     @GetMapping("/comments/{id}")
@@ -54,6 +59,22 @@ public class CommentController {
         return new ResponseEntity<>(comments, HttpStatus.OK);
     }
 
+    // Paginated thread: ?limit=N[&after={date,id}]
+    @GetMapping(value = "/comments/{id}", params = "limit")
+    public ResponseEntity<CursorPage<CommentSummary>> getCommentPage(
+            @PathVariable int id,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            HttpSession session) {
+        User viewer = (User) session.getAttribute("user");
+        try {
+            return ResponseEntity.ok(commentserviceimpl.getThreadPage(id, after, limit,
+                    viewer == null ? null : viewer.getUserId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("likes/{id}")
     public int postLikes(@PathVariable int id, HttpSession session) {
         try {
@@ -61,40 +82,20 @@ public class CommentController {
             if (user == null) {
                 return -1; // Unauthorized
             }
-            Comment comment = commentserviceimpl.getComment(id);
-            if (comment == null) {
-                return -2; // Post not found
+            LikeToggle toggle = commentserviceimpl.toggleLike(id, user.getUserId());
+            if (toggle == null) {
+                return -2; // Comment not found
             }
-            User Temp = user;
-            // Check if user already liked the post
-            boolean alreadyLiked = comment.Getlikes(user);
-            System.out.println("User " + user.getUsername() + " already liked post: " + alreadyLiked);
-            if (alreadyLiked) {
-                // Unlike the post
-                System.out.println("User " + user.getUsername() + " is unliking post with ID: " + id);
-                commentRepo.deleteLike(id, user.getUserId());
-                // comment.getLikes().removeIf(u -> u.getUserId() == user.getUserId());
-                // notificationService.createNotification(
-                //             comment.getAuthor(),
-                //             "Your comment is getting recognized! ",
-                //             user.getUsername()+ " Liked your comment",
-                //             NotificationType.COMMENT_LIKED);
-
-            } else {
-                System.out.println("User " + user.getUsername() + " is liking post with ID: " + id);
-                // Like the post
-                comment.getLikes().add(user);
-                
-            notificationService.createNotification(
-                            comment.getAuthor(),
-                            "Your comment is getting recognized! ",
-                            user.getUsername()+ " Liked your comment",
-                            NotificationType.COMMENT_LIKED);
+            if (toggle.liked()) {
+                notificationJobs.submit(NotificationJob.coalesced(
+                        List.of(commentRepo.findAuthorId(id)),
+                        NotificationType.COMMENT_LIKED,
+                        "comment:" + id,
+                        user.getUsername(),
+                        "Your comment is getting recognized! ",
+                        "liked your comment"));
             }
-            Comment savedcomment = commentRepo.save(comment);
-            
-            // Return the updated post data
-            return savedcomment.getLikes().size(); // Return the number of likes
+            return toggle.likeCount(); // Return the number of likes
         } catch (Exception e) {
             return -3; // Internal server error
         }
@@ -121,11 +122,11 @@ public class CommentController {
             comment.setReport(0);
             Comment savedComment = commentserviceimpl.CreateComment(comment);
             User temp=savedComment.getAuthor();
-            notificationService.createNotification(
-                            temp,
+            notificationJobs.submit(NotificationJob.direct(
+                            temp.getUserId(),
                             "Your comment is getting recognized! ",
                             user.getUsername()+ " Liked your post",
-                            NotificationType.COMMENT_ADDED);
+                            NotificationType.COMMENT_ADDED));
                 
             return new ResponseEntity<>(savedComment, HttpStatus.CREATED);
         } catch (Exception e) {
@@ -135,26 +136,23 @@ public class CommentController {
     }
 
     @PutMapping("/Report")
-    public ResponseEntity<?> reportComment(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> reportComment(@RequestBody Map<String, Object> request, HttpSession session) {
         try {
+            User user = (User) session.getAttribute("user");
+            if (user == null) {
+                return new ResponseEntity<>("Unauthorized", HttpStatus.UNAUTHORIZED);
+            }
             Integer commentID = (Integer) request.get("commentID");
             if (commentID == null) {
                 return new ResponseEntity<>("Missing required fields", HttpStatus.BAD_REQUEST);
             }
-            Comment comment = commentserviceimpl.getComment(commentID);
-            if (comment == null) {
-                return new ResponseEntity<>("Comment not found", HttpStatus.NOT_FOUND);
-            }
-            int reports = comment.getReport() + 1;
-            comment.setReport(reports);
-
-            if (reports >= 10) {
-                commentserviceimpl.deleteByCommentId(commentID);
-                return new ResponseEntity<>("Comment deleted due to reports", HttpStatus.OK);
-            } else {
-                commentserviceimpl.CreateComment(comment); // Make sure you have a save method
-                return new ResponseEntity<>("Report count incremented", HttpStatus.OK);
-            }
+            ReportResult result = commentserviceimpl.reportComment(commentID, user.getUserId());
+            return switch (result.outcome()) {
+                case NOT_FOUND -> new ResponseEntity<>("Comment not found", HttpStatus.NOT_FOUND);
+                case DELETED -> new ResponseEntity<>("Comment deleted due to reports", HttpStatus.OK);
+                case ALREADY_REPORTED -> new ResponseEntity<>("Comment already reported", HttpStatus.OK);
+                case REPORTED -> new ResponseEntity<>("Report count incremented", HttpStatus.OK);
+            };
         } catch (Exception e) {
             return new ResponseEntity<>("Internal server error: " + e.getMessage(),
                     HttpStatus.INTERNAL_SERVER_ERROR);
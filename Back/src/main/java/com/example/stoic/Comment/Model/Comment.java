@@ -20,7 +20,10 @@ import org.hibernate.annotations.OnDeleteAction;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        // keyset thread: a post's comments, oldest first
+        @Index(name = "idx_comments_thread", columnList = "post_id, date, id")
+})
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Comment {
     @Id
@@ -40,9 +43,15 @@ public class Comment {
     
     @ManyToMany
     @OnDelete(action = OnDeleteAction.CASCADE)
-    @JoinTable(name = "comment_likes", joinColumns = @JoinColumn(name = "comment_id"), inverseJoinColumns = @JoinColumn(name = "user_id"))
+    @JoinTable(name = "comment_likes", joinColumns = @JoinColumn(name = "comment_id"), inverseJoinColumns = @JoinColumn(name = "user_id"),
+            uniqueConstraints = @UniqueConstraint(columnNames = { "comment_id", "user_id" }))
     private List<User> likes;
 
+    // size of likes, maintained in SQL by CommentRepo's like toggle
+    // read-only here: saving a loaded entity must not write back a stale count
+    @Column(name = "like_count", columnDefinition = "int not null default 0", insertable = false, updatable = false)
+    private int likeCount = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnore // This prevents Post → Comment → Post infinite loop
     @JoinColumn(name = "post_id", nullable = false)
@@ -0,0 +1,47 @@
+package com.example.stoic.Comment.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * One user's report of one comment. The primary key is what stops a user
+ * from reporting the same comment twice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "comment_report")
+@IdClass(CommentReport.Key.class)
+public class CommentReport {
+    @Id
+    @Column(name = "comment_id")
+    private int commentId;
+
+    @Id
+    @Column(name = "reporter_id")
+    private int reporterId;
+
+    @Column(name = "reported_at", nullable = false)
+    private LocalDateTime reportedAt;
+
+    // only here for the foreign key, so reports go with their comment
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "comment_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Comment comment;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private int commentId;
+        private int reporterId;
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.stoic.Comment.Repo;
 
 import com.example.stoic.Comment.Model.Comment;
+import com.example.stoic.Comment.Service.CommentSummary;
 import com.example.stoic.Post.Model.Post;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
@@ -27,10 +31,75 @@ public interface CommentRepo extends JpaRepository<Comment, Integer> {
     @Query("SELECT u FROM Comment u WHERE u.post.id = :id ORDER BY u.date ASC")
     List<Comment> getCommentsByPostId(int id);
 
+    // One thread page, oldest first, strictly after the (date, id) cursor; reads the author id
+    // from the foreign key without joining users
+    @Query("SELECT new com.example.stoic.Comment.Service.CommentSummary("
+            + "c.id, c.content, c.date, c.author.userId, c.likeCount) "
+            + "FROM Comment c WHERE c.post.id = :postId "
+            + "AND (c.date > :date OR (c.date = :date AND c.id > :id)) "
+            + "ORDER BY c.date ASC, c.id ASC")
+    List<CommentSummary> findThreadPage(@Param("postId") int postId, @Param("date") LocalDateTime date,
+            @Param("id") int id, Limit limit);
+
+    // which of these comments the user has liked
+    @Query(value = "SELECT comment_id FROM comment_likes WHERE user_id = :userId AND comment_id IN (:commentIds)", nativeQuery = true)
+    List<Integer> findLikedCommentIds(@Param("userId") int userId, @Param("commentIds") Collection<Integer> commentIds);
+
     @Modifying
     @Transactional
     @Query(value = "DELETE FROM comment_likes WHERE comment_id = :commentId AND user_id = :userId", nativeQuery = true)
-    void deleteLike(
+    int deleteLike(
             @Param("commentId") int commentId,
             @Param("userId") int userId);
-}
\ No newline at end of file
+
+    @Query(value = "SELECT EXISTS(SELECT 1 FROM comment_likes WHERE comment_id = :commentId AND user_id = :userId)", nativeQuery = true)
+    long likeExists(@Param("commentId") int commentId, @Param("userId") int userId);
+
+    // 0 if the like is already there (someone raced us to it)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO comment_likes (comment_id, user_id) VALUES (:commentId, :userId)", nativeQuery = true)
+    int insertLike(@Param("commentId") int commentId, @Param("userId") int userId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE comments SET like_count = like_count + :delta WHERE id = :commentId", nativeQuery = true)
+    int adjustLikeCount(@Param("commentId") int commentId, @Param("delta") int delta);
+
+    @Query(value = "SELECT like_count FROM comments WHERE id = :commentId", nativeQuery = true)
+    Integer findLikeCount(@Param("commentId") int commentId);
+
+    @Query(value = "SELECT user_id FROM comments WHERE id = :commentId", nativeQuery = true)
+    Integer findAuthorId(@Param("commentId") int commentId);
+
+    @Query(value = "SELECT EXISTS(SELECT 1 FROM comment_report WHERE comment_id = :commentId AND reporter_id = :reporterId)", nativeQuery = true)
+    long reportExists(@Param("commentId") int commentId, @Param("reporterId") int reporterId);
+
+    // 0 if this reporter already has a row (a concurrent duplicate report)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO comment_report (comment_id, reporter_id, reported_at) VALUES (:commentId, :reporterId, NOW(6))", nativeQuery = true)
+    int insertReport(@Param("commentId") int commentId, @Param("reporterId") int reporterId);
+
+    // Adds delta and leaves the new count in this connection's LAST_INSERT_ID()
+    @Modifying
+    @Query(value = "UPDATE comments SET no_reports = LAST_INSERT_ID(no_reports + :delta) WHERE id = :commentId", nativeQuery = true)
+    int adjustReports(@Param("commentId") int commentId, @Param("delta") int delta);
+
+    @Query(value = "SELECT no_reports FROM comments WHERE id = :commentId", nativeQuery = true)
+    Integer findReportCount(@Param("commentId") int commentId);
+
+    @Query(value = "SELECT LAST_INSERT_ID()", nativeQuery = true)
+    long lastInsertId();
+
+    @Modifying
+    @Query(value = "DELETE FROM comment_report WHERE comment_id = :commentId", nativeQuery = true)
+    int deleteReports(@Param("commentId") int commentId);
+
+    @Modifying
+    @Query(value = "DELETE FROM comment_likes WHERE comment_id = :commentId", nativeQuery = true)
+    int deleteLikes(@Param("commentId") int commentId);
+
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE id = :commentId", nativeQuery = true)
+    int deleteRow(@Param("commentId") int commentId);
+}
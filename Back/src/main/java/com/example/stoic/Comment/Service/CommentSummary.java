@@ -0,0 +1,67 @@
+package com.example.stoic.Comment.Service;
+
+import java.time.LocalDateTime;
+
+// One comment of a thread page, with its author's name and like count instead of the full users
+public class CommentSummary {
+
+    private int id;
+    private String content;
+    private LocalDateTime date;
+    private int authorId;
+    private String authorName;
+    private long likeCount;
+    private boolean likedByMe;
+
+    /**
+     * Used by the thread projection query in CommentRepo; the author name is
+     * filled in afterwards from one batched lookup.
+     */
+    public CommentSummary(int id, String content, LocalDateTime date, int authorId, int likeCount) {
+        this.id = id;
+        this.content = content;
+        this.date = date;
+        this.authorId = authorId;
+        this.likeCount = likeCount;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public int getAuthorId() {
+        return authorId;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public void setAuthorName(String authorName) {
+        this.authorName = authorName;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public boolean isLikedByMe() {
+        return likedByMe;
+    }
+
+    public void setLikedByMe(boolean likedByMe) {
+        this.likedByMe = likedByMe;
+    }
+}
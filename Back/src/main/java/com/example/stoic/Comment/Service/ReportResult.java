@@ -0,0 +1,15 @@
+package com.example.stoic.Comment.Service;
+
+/**
+ * What a report did, and the comment's report count after it (0 when the
+ * comment is gone).
+ */
+public record ReportResult(Outcome outcome, int reports) {
+
+    public enum Outcome {
+        REPORTED,
+        ALREADY_REPORTED,
+        DELETED,
+        NOT_FOUND
+    }
+}
@@ -3,6 +3,8 @@ package com.example.stoic.Comment.Service;
 import com.example.stoic.Comment.Model.Comment;
 import com.example.stoic.Post.Model.Post;
 import com.example.stoic.User.Model.User;
+import com.example.stoic.common.CursorPage;
+import com.example.stoic.common.LikeToggle;
 import lombok.RequiredArgsConstructor;
 
 import java.util.List;
@@ -13,10 +15,19 @@ import org.springframework.transaction.annotation.Transactional;
 public interface commentservice {
     List<Comment> getCommentsByPostId(int id);
 
+    // Keyset page of a post's comments; viewerId (nullable) fills in likedByMe
+    CursorPage<CommentSummary> getThreadPage(int postId, String after, int limit, Integer viewerId);
+
     Comment CreateComment(Comment comment);
 
     Comment getComment(int id);
 
     void deleteByCommentId(int id);
 
+    // Like or unlike; null if the comment does not exist
+    LikeToggle toggleLike(int commentId, int userId);
+
+    // Count one report per user; the comment is deleted when the count reaches the threshold
+    ReportResult reportComment(int commentId, int reporterId);
+
 }
\ No newline at end of file
@@ -1,22 +1,46 @@
 package com.example.stoic.Comment.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.stoic.Comment.Model.Comment;
 import com.example.stoic.Comment.Repo.CommentRepo;
 import com.example.stoic.Post.Model.Post;
 import com.example.stoic.Post.Repo.PostRepo;
 import com.example.stoic.Room.Model.Room;
+import com.example.stoic.User.Repo.UserRepo;
+import com.example.stoic.common.CursorPage;
+import com.example.stoic.common.LikeCounterBuffer;
+import com.example.stoic.common.LikeToggle;
 
 @Service
 public class commentserviceimpl implements commentservice {
+    private static final int MAX_THREAD_PAGE = 100;
+    // first-page cursor: before any comment
+    private static final LocalDateTime THREAD_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final CommentRepo commentRepo;
+    private final UserRepo userRepo;
+    private final LikeCounterBuffer likeCounters;
+    private final int reportThreshold;
 
-    public commentserviceimpl(CommentRepo commentRepo) {
+    public commentserviceimpl(CommentRepo commentRepo, UserRepo userRepo, LikeCounterBuffer likeCounters,
+            @Value("${stoic.comments.report-threshold:10}") int reportThreshold) {
         this.commentRepo = commentRepo;
+        this.userRepo = userRepo;
+        this.likeCounters = likeCounters;
+        this.reportThreshold = reportThreshold;
     }
 
     @Override
@@ -29,6 +53,90 @@ public class commentserviceimpl implements commentservice {
         return commentRepo.getCommentsByPostId(id);
     }
 
+    /**
+     * At most three queries whatever the page size: the page, the names of
+     * its distinct authors, and the viewer's likes among its comments. Like
+     * counts come from the like_count column.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentSummary> getThreadPage(int postId, String after, int limit, Integer viewerId) {
+        int size = Math.max(1, Math.min(limit, MAX_THREAD_PAGE));
+        LocalDateTime date = THREAD_START;
+        int id = 0;
+        if (after != null && !after.isBlank()) {
+            int comma = after.lastIndexOf(',');
+            try {
+                date = LocalDateTime.parse(after.substring(0, comma));
+                id = Integer.parseInt(after.substring(comma + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after, e);
+            }
+        }
+        List<CommentSummary> page = commentRepo.findThreadPage(postId, date, id, Limit.of(size));
+        if (page.isEmpty()) {
+            return new CursorPage<>(page, null);
+        }
+
+        Set<Integer> authorIds = new HashSet<>();
+        List<Integer> ids = new ArrayList<>(page.size());
+        for (CommentSummary comment : page) {
+            authorIds.add(comment.getAuthorId());
+            ids.add(comment.getId());
+        }
+        Map<Integer, String> authors = new HashMap<>();
+        for (Object[] row : userRepo.findUsernames(authorIds)) {
+            authors.put((Integer) row[0], (String) row[1]);
+        }
+        Set<Integer> liked = viewerId == null ? Set.of()
+                : new HashSet<>(commentRepo.findLikedCommentIds(viewerId, ids));
+        for (CommentSummary comment : page) {
+            comment.setAuthorName(authors.get(comment.getAuthorId()));
+            comment.setLikedByMe(liked.contains(comment.getId()));
+            comment.setLikeCount(comment.getLikeCount()
+                    + likeCounters.pending(LikeCounterBuffer.Target.COMMENT, comment.getId()));
+        }
+
+        CommentSummary last = page.get(page.size() - 1);
+        // a short page means this is the end of the thread
+        String next = page.size() == size ? last.getDate() + "," + last.getId() : null;
+        return new CursorPage<>(page, next);
+    }
+
+    /**
+     * No read-modify-write in Java: the count is bumped in SQL and the new
+     * value read back through LAST_INSERT_ID(), all in one transaction with
+     * the dedup insert and the threshold delete. As with likes, the comment
+     * row is locked by the UPDATE before the report insert's foreign key
+     * check would take a shared lock on it, so concurrent reporters queue
+     * instead of deadlocking. The lock is held until commit, so exactly one
+     * report sees the threshold and deletes.
+     */
+    @Override
+    @Transactional
+    public ReportResult reportComment(int commentId, int reporterId) {
+        if (commentRepo.reportExists(commentId, reporterId) != 0) {
+            Integer reports = commentRepo.findReportCount(commentId);
+            return new ReportResult(ReportResult.Outcome.ALREADY_REPORTED, reports == null ? 0 : reports);
+        }
+        if (commentRepo.adjustReports(commentId, 1) == 0) {
+            return new ReportResult(ReportResult.Outcome.NOT_FOUND, 0);
+        }
+        int reports = (int) commentRepo.lastInsertId();
+        if (commentRepo.insertReport(commentId, reporterId) == 0) {
+            // the same user's concurrent report got in first
+            commentRepo.adjustReports(commentId, -1);
+            return new ReportResult(ReportResult.Outcome.ALREADY_REPORTED, reports - 1);
+        }
+        if (reports < reportThreshold) {
+            return new ReportResult(ReportResult.Outcome.REPORTED, reports);
+        }
+        commentRepo.deleteReports(commentId);
+        commentRepo.deleteLikes(commentId);
+        commentRepo.deleteRow(commentId);
+        return new ReportResult(ReportResult.Outcome.DELETED, 0);
+    }
+
     @Override
     public Comment getComment(int id) {
         try {
@@ -51,4 +159,42 @@ public class commentserviceimpl implements commentservice {
             throw new RuntimeException("Failed to delete room by id: " + id, e);
         }
     }
+
+    // Same scheme as PostServiceImpl.toggleLike: counter first when liking
+    @Override
+    @Transactional
+    public LikeToggle toggleLike(int commentId, int userId) {
+        if (likeCounters.isEnabled()) {
+            return toggleBuffered(commentId, userId);
+        }
+        if (commentRepo.likeExists(commentId, userId) == 0) {
+            if (commentRepo.adjustLikeCount(commentId, 1) == 0) {
+                return null;
+            }
+            if (commentRepo.insertLike(commentId, userId) == 0) {
+                commentRepo.adjustLikeCount(commentId, -1);
+            }
+            return new LikeToggle(true, commentRepo.findLikeCount(commentId));
+        }
+        if (commentRepo.deleteLike(commentId, userId) == 1) {
+            commentRepo.adjustLikeCount(commentId, -1);
+        }
+        Integer count = commentRepo.findLikeCount(commentId);
+        return count == null ? null : new LikeToggle(false, count);
+    }
+
+    // Hot-counter mode: the like row is written here, the count change goes to the buffer on commit
+    private LikeToggle toggleBuffered(int commentId, int userId) {
+        Integer stored = commentRepo.findLikeCount(commentId);
+        if (stored == null) {
+            return null;
+        }
+        boolean liked = commentRepo.likeExists(commentId, userId) == 0;
+        int delta = liked ? commentRepo.insertLike(commentId, userId) : -commentRepo.deleteLike(commentId, userId);
+        long count = stored + likeCounters.pending(LikeCounterBuffer.Target.COMMENT, commentId) + delta;
+        if (delta != 0) {
+            likeCounters.addAfterCommit(LikeCounterBuffer.Target.COMMENT, commentId, delta);
+        }
+        return new LikeToggle(liked, (int) count);
+    }
 }
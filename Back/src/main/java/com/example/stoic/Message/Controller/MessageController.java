@@ -5,11 +5,20 @@ import com.example.stoic.Message.Service.MessageService;
 import com.example.stoic.Room.dto.ChatMessageDto;
 import com.google.cloud.storage.Acl.User;
 
+import com.example.stoic.common.CursorPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,7 +32,10 @@ import java.util.List;
 @RequestMapping("/api/messages")
 public class MessageController {
 
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final MessageService service;
+    private final ObjectMapper objectMapper;
 
     // WebSocket endpoint for real-time chat
     @MessageMapping("/chat.send")
@@ -46,6 +58,36 @@ public class MessageController {
                 .toList();
     }
 
+    // REST: one page of room history, ?before={id} pages further back
+    @GetMapping(value = "/rooms/{roomId}/history", params = "limit")
+    public CursorPage<ChatMessageDto> getRoomHistoryPage(@PathVariable int roomId,
+            @RequestParam(required = false) Long before,
+            @RequestParam int limit) {
+        return service.getRoomHistoryPage(roomId, before, limit);
+    }
+
+    // REST: full room history as newline-delimited JSON, streamed chunk by chunk
+    @GetMapping("/rooms/{roomId}/history/export")
+    public ResponseEntity<StreamingResponseBody> exportRoomHistory(@PathVariable int roomId) {
+        StreamingResponseBody body = out -> service.forEachRoomHistoryChunk(roomId, EXPORT_CHUNK_SIZE,
+                chunk -> writeLines(out, chunk));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeLines(OutputStream out, List<ChatMessageDto> chunk) {
+        try {
+            for (ChatMessageDto dto : chunk) {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     // REST: by sender
     @GetMapping("/sender/{senderId}")
     public List<Message> getBySender(@PathVariable int senderId) {
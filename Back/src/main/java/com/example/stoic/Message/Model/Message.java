@@ -11,7 +11,10 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
-@Table(name = "chat_message")
+@Table(name = "chat_message", indexes = {
+        // keyset pagination of room history: WHERE room_id = ? AND id < ? ORDER BY id DESC
+        @Index(name = "idx_chat_message_room_id", columnList = "room_id, id")
+})
 public class Message {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
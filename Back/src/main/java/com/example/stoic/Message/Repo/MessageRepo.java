@@ -2,11 +2,32 @@ package com.example.stoic.Message.Repo;
 
 
 import com.example.stoic.Message.Model.Message;
+import com.example.stoic.Room.dto.ChatMessageDto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface MessageRepo extends JpaRepository<Message, Integer> , JpaSpecificationExecutor<Message> {
+
+    /**
+     * Newest-first page of a room's history below the given id, projected
+     * straight into DTOs so neither the Room nor the sender entity is loaded.
+     */
+    @Query("select new com.example.stoic.Room.dto.ChatMessageDto(m.id, m.room.roomId, s.userId, s.username, m.content, m.sentAt) "
+            + "from Message m join m.sender s where m.room.roomId = :roomId and m.id < :before order by m.id desc")
+    List<ChatMessageDto> findHistoryBefore(@Param("roomId") int roomId, @Param("before") long before, Limit limit);
+
+    /**
+     * Oldest-first page of a room's history above the given id, for exports.
+     */
+    @Query("select new com.example.stoic.Room.dto.ChatMessageDto(m.id, m.room.roomId, s.userId, s.username, m.content, m.sentAt) "
+            + "from Message m join m.sender s where m.room.roomId = :roomId and m.id > :after order by m.id asc")
+    List<ChatMessageDto> findHistoryAfter(@Param("roomId") int roomId, @Param("after") long after, Limit limit);
 }
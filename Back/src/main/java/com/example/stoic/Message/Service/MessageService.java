@@ -1,14 +1,38 @@
 package com.example.stoic.Message.Service;
 
 import com.example.stoic.Message.Model.Message;
+import com.example.stoic.Room.dto.ChatMessageDto;
+import com.example.stoic.common.CursorPage;
+
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface MessageService {
     Message save(Message message);
 
+    /**
+     * Save through the group-commit writer when write-behind is enabled; the
+     * future completes once the message is committed. Otherwise saves inline
+     * and returns a completed future.
+     */
+    CompletableFuture<Message> saveAsync(Message message);
+
     List<Message> getRoomHistory(int roomId);
 
+    /**
+     * Up to {@code limit} messages older than {@code before} (or the newest ones
+     * when null), oldest first. The cursor is the id of the oldest message.
+     */
+    CursorPage<ChatMessageDto> getRoomHistoryPage(int roomId, Long before, int limit);
+
+    /**
+     * Feed the whole history of a room to {@code sink} in id order, one chunk at
+     * a time, so memory use does not depend on the history length.
+     */
+    void forEachRoomHistoryChunk(int roomId, int chunkSize, Consumer<List<ChatMessageDto>> sink);
+
     List<Message> getBySender(int senderId);
 
     List<Message> getBetween(LocalDateTime from, LocalDateTime to);
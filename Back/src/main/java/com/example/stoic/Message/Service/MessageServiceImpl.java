@@ -2,14 +2,22 @@ package com.example.stoic.Message.Service;
 
 import com.example.stoic.Message.Model.Message;
 import com.example.stoic.Message.Repo.MessageRepo;
+import com.example.stoic.Room.dto.ChatMessageDto;
+import com.example.stoic.common.CursorPage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -17,7 +25,11 @@ import java.util.List;
 
 public class MessageServiceImpl implements MessageService {
 
+    static final int MAX_PAGE_SIZE = 200;
+
     private final MessageRepo repo;
+    private final MessageWriteBehind writeBehind;
+    private final RecentMessageBuffer recentMessages;
 
     @Override
     public Message save(Message message) {
@@ -25,12 +37,64 @@ public class MessageServiceImpl implements MessageService {
         return repo.save(message);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // the writer thread owns the transaction
+    public CompletableFuture<Message> saveAsync(Message message) {
+        message.setSentAt(LocalDateTime.now());
+        if (writeBehind.isEnabled()) {
+            return writeBehind.submit(message);
+        }
+        return CompletableFuture.completedFuture(repo.save(message));
+    }
+
     @Override
     public List<Message> getRoomHistory(int roomId) {
         Specification<Message> spec = (root, query, cb) -> cb.equal(root.get("room").get("roomId"), roomId);
         return repo.findAll(spec, Sort.by("sentAt").ascending());
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // ring hits need no connection
+    public CursorPage<ChatMessageDto> getRoomHistoryPage(int roomId, Long before, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<ChatMessageDto> page = recentMessages.page(roomId, before, size);
+        if (page == null) {
+            List<ChatMessageDto> rows = null;
+            if (before == null) {
+                // one query both answers this request and seeds the room's ring
+                int count = Math.max(size, recentMessages.capacity());
+                rows = recentMessages.seed(roomId, count, () -> loadOldestFirst(roomId, Long.MAX_VALUE, count));
+            }
+            if (rows == null) {
+                rows = loadOldestFirst(roomId, before != null ? before : Long.MAX_VALUE, size);
+            }
+            page = rows.subList(Math.max(0, rows.size() - size), rows.size());
+        }
+        // a short page means there is nothing older left
+        String next = page.size() == size ? String.valueOf(page.get(0).getId()) : null;
+        return new CursorPage<>(page, next);
+    }
+
+    private List<ChatMessageDto> loadOldestFirst(int roomId, long before, int count) {
+        List<ChatMessageDto> rows = new ArrayList<>(repo.findHistoryBefore(roomId, before, Limit.of(count)));
+        Collections.reverse(rows);
+        return rows;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // each chunk is its own short read
+    public void forEachRoomHistoryChunk(int roomId, int chunkSize, Consumer<List<ChatMessageDto>> sink) {
+        long after = 0;
+        List<ChatMessageDto> chunk;
+        do {
+            chunk = repo.findHistoryAfter(roomId, after, Limit.of(chunkSize));
+            if (!chunk.isEmpty()) {
+                sink.accept(chunk);
+                after = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == chunkSize);
+    }
+
     @Override
     public List<Message> getBySender(int senderId) {
         Specification<Message> spec = (root, query, cb) -> cb.equal(root.get("sender").get("userId"), senderId);
@@ -0,0 +1,212 @@
+package com.example.stoic.Message.Service;
+
+import com.example.stoic.Message.Model.Message;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit writer for chat messages (opt-in, stoic.chat.write-behind.enabled).
+ *
+ * Senders put messages on a bounded queue and get a future back. A single
+ * writer thread takes whatever is queued, up to max-batch messages or whatever
+ * arrived within max-delay-ms of the first one, inserts them with one
+ * multi-row INSERT in one transaction, and only then completes the futures,
+ * in queue order. Anything chained on the future (the room broadcast) therefore
+ * happens after commit and in send order. If the batch fails, its messages are
+ * retried one per transaction so only the failing ones complete exceptionally.
+ */
+@Component
+public class MessageWriteBehind {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Pending> queue;
+
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public MessageWriteBehind(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            @Value("${stoic.chat.write-behind.enabled:false}") boolean enabled,
+            @Value("${stoic.chat.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${stoic.chat.write-behind.max-batch:256}") int maxBatch,
+            @Value("${stoic.chat.write-behind.max-delay-ms:5}") long maxDelayMs,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.batchSizes = DistributionSummary.builder("chat.write_behind.batch.size")
+                .description("Messages committed per group commit")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("chat.write_behind.commit")
+                .description("Time to insert and commit one batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("chat.write_behind.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "chat-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue a message for the next group commit. Blocks while the queue is full.
+     */
+    public CompletableFuture<Message> submit(Message message) {
+        Pending pending = new Pending(message);
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+        }
+        return pending.future;
+    }
+
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    Pending next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        try {
+            long start = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+            commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        } catch (Exception e) {
+            System.err.println("❌ Group commit of " + batch.size() + " messages failed: " + e.getMessage());
+            if (batch.size() > 1) {
+                commitEach(batch);
+            } else {
+                batch.get(0).future.completeExceptionally(e);
+            }
+            return;
+        }
+        for (Pending p : batch) {
+            p.future.complete(p.message);
+        }
+    }
+
+    // One bad row (say, its room was deleted meanwhile) fails the whole
+    // statement; retry row by row so only that message fails
+    private void commitEach(List<Pending> batch) {
+        for (Pending p : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(p)));
+                p.future.complete(p.message);
+            } catch (Exception e) {
+                System.err.println("❌ Error saving chat message for room " + p.message.getRoom().getRoomId()
+                        + ": " + e.getMessage());
+                p.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void insert(List<Pending> batch) {
+        StringBuilder sql = new StringBuilder("INSERT INTO chat_message (room_id, sender_id, content, sent_at) VALUES ");
+        for (int i = 0; i < batch.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
+                int param = 1;
+                for (Pending p : batch) {
+                    ps.setInt(param++, p.message.getRoom().getRoomId());
+                    ps.setInt(param++, p.message.getSender().getUserId());
+                    ps.setString(param++, p.message.getContent());
+                    ps.setTimestamp(param++, Timestamp.valueOf(p.message.getSentAt()));
+                }
+                ps.executeUpdate();
+                // one multi-row INSERT gets consecutive ids, returned in row order
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Pending p : batch) {
+                        keys.next();
+                        p.message.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private static final class Pending {
+        final Message message;
+        final CompletableFuture<Message> future = new CompletableFuture<>();
+
+        Pending(Message message) {
+            this.message = message;
+        }
+    }
+}
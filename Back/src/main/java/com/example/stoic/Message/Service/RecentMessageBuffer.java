@@ -0,0 +1,279 @@
+package com.example.stoic.Message.Service;
+
+import com.example.stoic.Room.dto.ChatMessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Last N chat messages of each recently used room, kept in memory so opening a
+ * room does not have to hit MySQL.
+ *
+ * A room's ring is created on the first history read (seeded from the DB) and
+ * then kept current by {@link #append} after each send. Rooms are evicted in
+ * LRU order whenever the estimated size of all rings goes over the budget,
+ * and dropped through {@link #evict} when the room is deleted.
+ */
+@Component
+public class RecentMessageBuffer {
+
+    private final boolean enabled;
+    private final int perRoom;
+    private final long maxBytes;
+
+    private final Map<Integer, Ring> rings = new LinkedHashMap<>(256, 0.75f, true);
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public RecentMessageBuffer(
+            @Value("${stoic.chat.recent-buffer.enabled:true}") boolean enabled,
+            @Value("${stoic.chat.recent-buffer.per-room:100}") int perRoom,
+            @Value("${stoic.chat.recent-buffer.max-bytes:67108864}") long maxBytes,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.perRoom = perRoom;
+        this.maxBytes = maxBytes;
+        this.hits = Counter.builder("chat.recent_buffer.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("chat.recent_buffer.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("chat.recent_buffer.bytes", bytes, AtomicLong::get)
+                .description("Estimated heap held by the recent-message rings")
+                .register(meterRegistry);
+        Gauge.builder("chat.recent_buffer.rooms", this, RecentMessageBuffer::roomCount).register(meterRegistry);
+    }
+
+    public int capacity() {
+        return perRoom;
+    }
+
+    /**
+     * Add a committed message to its room's ring, if the room is buffered.
+     */
+    public void append(ChatMessageDto message) {
+        if (!enabled) {
+            return;
+        }
+        Ring ring;
+        synchronized (rings) {
+            ring = rings.get(message.getRoomId());
+        }
+        if (ring != null) {
+            bytes.addAndGet(ring.insert(message));
+            evictOverBudget();
+        }
+    }
+
+    /**
+     * Up to {@code limit} messages older than {@code before} (null = newest),
+     * oldest first, or null if the ring cannot answer the request on its own.
+     */
+    public List<ChatMessageDto> page(int roomId, Long before, int limit) {
+        if (!enabled) {
+            return null;
+        }
+        Ring ring;
+        synchronized (rings) {
+            ring = rings.get(roomId);
+        }
+        List<ChatMessageDto> page = ring != null ? ring.page(before, limit) : null;
+        if (page != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return page;
+    }
+
+    /**
+     * Start buffering a room. {@code loader} must return the newest
+     * {@code requested} messages of the room (fewer if the room has fewer),
+     * oldest first. The ring is registered before the loader runs, so sends
+     * committed while it loads are not lost. Returns the loaded rows, or null
+     * when the room is already buffered (or being seeded) and nothing was loaded.
+     */
+    public List<ChatMessageDto> seed(int roomId, int requested, Supplier<List<ChatMessageDto>> loader) {
+        if (!enabled) {
+            return null;
+        }
+        Ring ring;
+        synchronized (rings) {
+            if (rings.containsKey(roomId)) {
+                return null;
+            }
+            ring = new Ring(perRoom);
+            rings.put(roomId, ring);
+        }
+        List<ChatMessageDto> rows;
+        try {
+            rows = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (rings) {
+                rings.remove(roomId, ring);
+            }
+            throw e;
+        }
+        bytes.addAndGet(ring.seed(rows, rows.size() < requested));
+        evictOverBudget();
+        return rows;
+    }
+
+    /**
+     * Drop a room's ring now and, if a transaction is running, again once it
+     * commits so a history read in between cannot re-seed it from the old rows.
+     */
+    public void evict(int roomId) {
+        remove(roomId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(roomId);
+                }
+            });
+        }
+    }
+
+    private void remove(int roomId) {
+        Ring ring;
+        synchronized (rings) {
+            ring = rings.remove(roomId);
+        }
+        if (ring != null) {
+            bytes.addAndGet(-ring.release());
+        }
+    }
+
+    private void evictOverBudget() {
+        if (bytes.get() <= maxBytes) {
+            return;
+        }
+        synchronized (rings) {
+            Iterator<Ring> eldest = rings.values().iterator();
+            while (bytes.get() > maxBytes && eldest.hasNext()) {
+                Ring ring = eldest.next();
+                eldest.remove();
+                bytes.addAndGet(-ring.release());
+            }
+        }
+    }
+
+    public int roomCount() {
+        synchronized (rings) {
+            return rings.size();
+        }
+    }
+
+    static long estimateBytes(ChatMessageDto m) {
+        int chars = (m.getContent() != null ? m.getContent().length() : 0)
+                + (m.getSenderName() != null ? m.getSenderName().length() : 0);
+        return 96 + 2L * chars;
+    }
+
+    /**
+     * Messages of one room sorted by id, at most {@code capacity} of them.
+     */
+    private static final class Ring {
+        private final ChatMessageDto[] slots;
+        private int head; // index of the oldest message
+        private int size;
+        private long bytes;
+        private boolean ready;
+        private boolean released;
+        // true when the DB may hold messages older than the oldest one here
+        private boolean hasOlder = true;
+
+        Ring(int capacity) {
+            this.slots = new ChatMessageDto[capacity];
+        }
+
+        synchronized long insert(ChatMessageDto m) {
+            if (released) {
+                return 0;
+            }
+            long delta = 0;
+            for (int i = 0; i < size; i++) {
+                if (at(i).getId().equals(m.getId())) {
+                    return 0;
+                }
+            }
+            if (size == slots.length) {
+                if (m.getId() < at(0).getId()) {
+                    return 0;
+                }
+                delta -= estimateBytes(at(0));
+                slots[head] = null;
+                head = (head + 1) % slots.length;
+                size--;
+                hasOlder = true;
+            }
+            // sends mostly arrive in id order, so walk back from the tail
+            int pos = size;
+            while (pos > 0 && at(pos - 1).getId() > m.getId()) {
+                slots[(head + pos) % slots.length] = at(pos - 1);
+                pos--;
+            }
+            slots[(head + pos) % slots.length] = m;
+            size++;
+            delta += estimateBytes(m);
+            bytes += delta;
+            return delta;
+        }
+
+        synchronized long seed(List<ChatMessageDto> rows, boolean complete) {
+            long before = bytes;
+            for (ChatMessageDto m : rows) {
+                insert(m);
+            }
+            // the rows were the whole room and none had to be dropped
+            if (complete && rows.size() <= slots.length) {
+                hasOlder = false;
+            }
+            ready = true;
+            return bytes - before;
+        }
+
+        synchronized List<ChatMessageDto> page(Long before, int limit) {
+            if (!ready || released) {
+                return null;
+            }
+            int end = size;
+            if (before != null) {
+                while (end > 0 && at(end - 1).getId() >= before) {
+                    end--;
+                }
+            }
+            int start = Math.max(0, end - limit);
+            if (end - start < limit && hasOlder) {
+                return null;
+            }
+            List<ChatMessageDto> page = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                page.add(at(i));
+            }
+            return page;
+        }
+
+        synchronized long release() {
+            released = true;
+            return bytes;
+        }
+
+        private ChatMessageDto at(int i) {
+            return slots[(head + i) % slots.length];
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.example.stoic.Notification.Controller;
 
 import com.example.stoic.Notification.Model.Notification;
+import com.example.stoic.Notification.Model.NotificationPreference;
 import com.example.stoic.Notification.Model.NotificationType;
+import com.example.stoic.Notification.Service.NotificationDTO;
+import com.example.stoic.Notification.Service.NotificationPreferences;
 import com.example.stoic.Notification.Service.NotificationService;
+import com.example.stoic.User.Model.User;
+import com.example.stoic.User.Model.UserRole;
+import com.example.stoic.common.CursorPage;
+import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,9 +26,14 @@ import java.util.Map;
 @RequestMapping("/api/notifications")
 public class NotificationController {
 
+    private static final int MAX_BATCH_IDS = 1000;
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationPreferences preferences;
+
     @GetMapping("/{userId}")
     public ResponseEntity<List<Notification>> getUserNotifications(@PathVariable int userId) {
         try {
@@ -32,6 +44,20 @@ public class NotificationController {
         }
     }
 
+    // Paginated inbox: ?limit=N[&before={sentAt,id}][&type=POST_LIKED]
+    @GetMapping(value = "/{userId}", params = "limit")
+    public ResponseEntity<CursorPage<NotificationDTO>> getInboxPage(
+            @PathVariable int userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) NotificationType type,
+            @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(notificationService.getInboxPage(userId, before, type, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{userId}/unread")
     public ResponseEntity<List<Notification>> getUnreadNotifications(@PathVariable int userId) {
         try {
@@ -158,6 +184,95 @@ public class NotificationController {
         return new ResponseEntity<>("Notification with ID " + id + " deleted.", HttpStatus.NO_CONTENT);
     }
 
+    /**
+     * Mark or delete many notifications of one user in a single request.
+     * Body: {"ids": [1, 2, 3], "action": "read" | "delete"}
+     */
+    @PostMapping("/{userId}/batch")
+    public ResponseEntity<Map<String, Object>> batch(
+            @PathVariable int userId,
+            @RequestBody BatchNotificationRequest request) {
+        List<Integer> ids = request.getIds() != null ? request.getIds() : List.of();
+        if (ids.size() > MAX_BATCH_IDS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_BATCH_IDS + " ids per request"));
+        }
+        try {
+            String action = request.getAction() != null ? request.getAction().toLowerCase() : "";
+            switch (action) {
+                case "read":
+                    return ResponseEntity.ok(Map.of("read", notificationService.markAsRead(ids, userId)));
+                case "delete":
+                    return ResponseEntity.ok(Map.of("deleted", notificationService.deleteNotifications(ids, userId)));
+                default:
+                    return ResponseEntity.badRequest()
+                            .body(Map.of("error", "Unknown action: " + request.getAction()));
+            }
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Error: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Admin only: send one notification to every user.
+     * Body: {"title": "...", "message": "...", "type": "SYSTEM_UPDATE"}
+     */
+    @PostMapping("/broadcast")
+    public ResponseEntity<Map<String, Object>> broadcast(@RequestBody BroadcastNotificationRequest request,
+            HttpSession session) {
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Unauthorized"));
+        }
+        if (user.getUserRole() != UserRole.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Forbidden"));
+        }
+        if (request.getTitle() == null || request.getMessage() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Missing title or message"));
+        }
+        try {
+            NotificationType type = request.getType() != null
+                    ? NotificationType.valueOf(request.getType().toUpperCase())
+                    : NotificationType.SYSTEM_UPDATE;
+            long start = System.currentTimeMillis();
+            int recipients = notificationService.broadcastNotification(request.getTitle(), request.getMessage(), type);
+            return ResponseEntity.ok(Map.of("recipients", recipients, "millis", System.currentTimeMillis() - start));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Failed to broadcast notification: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{userId}/preferences")
+    public ResponseEntity<Map<String, Object>> getPreferences(@PathVariable int userId) {
+        NotificationPreference preference = preferences.get(userId);
+        return ResponseEntity.ok(Map.of(
+                "mutedTypes", NotificationPreferences.mutedTypes(preference),
+                "mutedRooms", preference.getMutedRooms()));
+    }
+
+    /**
+     * Replace a user's preferences.
+     * Body: {"mutedTypes": ["POST_LIKED", ...], "mutedRooms": [12, ...]}
+     */
+    @PutMapping("/{userId}/preferences")
+    public ResponseEntity<Map<String, Object>> updatePreferences(
+            @PathVariable int userId,
+            @RequestBody NotificationPreferencesRequest request) {
+        try {
+            NotificationPreference saved = preferences.update(userId,
+                    request.getMutedTypes() != null ? request.getMutedTypes() : List.of(),
+                    request.getMutedRooms() != null ? request.getMutedRooms() : List.of());
+            return ResponseEntity.ok(Map.of(
+                    "mutedTypes", NotificationPreferences.mutedTypes(saved),
+                    "mutedRooms", saved.getMutedRooms()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Error: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/mark-read")
     public ResponseEntity<Void> markAllRead(@RequestParam int userId) {
         notificationService.markAllReadForUser(userId);
@@ -171,6 +286,81 @@ public class NotificationController {
 
 }
 
+// Request DTO for the batch endpoint
+class BatchNotificationRequest {
+    private List<Integer> ids;
+    private String action;
+
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+}
+
+// Request DTO for the preferences endpoint
+class NotificationPreferencesRequest {
+    private List<NotificationType> mutedTypes;
+    private List<Integer> mutedRooms;
+
+    public List<NotificationType> getMutedTypes() {
+        return mutedTypes;
+    }
+
+    public void setMutedTypes(List<NotificationType> mutedTypes) {
+        this.mutedTypes = mutedTypes;
+    }
+
+    public List<Integer> getMutedRooms() {
+        return mutedRooms;
+    }
+
+    public void setMutedRooms(List<Integer> mutedRooms) {
+        this.mutedRooms = mutedRooms;
+    }
+}
+
+// Request DTO for the admin broadcast
+class BroadcastNotificationRequest {
+    private String title;
+    private String message;
+    private String type;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+}
+
 // Request DTO
 class SendNotificationRequest {
     private int userId;
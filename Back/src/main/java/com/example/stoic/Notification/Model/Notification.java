@@ -10,10 +10,15 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "notification")
+@Table(name = "notification", indexes = {
+        // serves the unread COUNT and the keyset inbox (user, unread, newest first)
+        @Index(name = "idx_notification_inbox", columnList = "user_id, is_read, sent_at, id"),
+        // lets the retention job find expired rows of one type without a full scan
+        @Index(name = "idx_notification_retention", columnList = "type, is_read, sent_at")
+})
 public class Notification {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
     private int id;
 
@@ -32,9 +37,14 @@ public class Notification {
     @Column(name = "content", nullable = false)
     private String content;
 
+    // when the first event happened; never rewritten, the inbox cursor and retention key on it
     @Column(name = "sent_at")
     private LocalDateTime sentAt;
 
+    // last time more events were merged into a coalesced row (null if never)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @Column(name = "received_at")
     private LocalDateTime receivedAt;
 
@@ -44,6 +54,14 @@ public class Notification {
     @Column(name = "read_at")
     private LocalDateTime readAt;
 
+    // what the notification is about (e.g. "post:12"); set on coalesced notifications
+    @Column(name = "target_key")
+    private String targetKey;
+
+    // number of events merged into this row
+    @Column(name = "group_count", columnDefinition = "int not null default 1")
+    private int groupCount = 1;
+
     public void setIsRead(Boolean isRead) {
         this.isRead = isRead;
         if (isRead && this.readAt == null) {
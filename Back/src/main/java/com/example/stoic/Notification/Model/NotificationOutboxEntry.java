@@ -0,0 +1,33 @@
+package com.example.stoic.Notification.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A WebSocket push waiting to be published. Written in the same transaction
+ * as the change it announces and deleted by the relay once sent; the table is
+ * read and written with plain JDBC, the mapping only defines the schema.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationOutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private long id;
+
+    @Column(name = "destination", nullable = false)
+    private String destination;
+
+    // JSON body, sent as-is
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, columnDefinition = "datetime(3)")
+    private LocalDateTime createdAt;
+}
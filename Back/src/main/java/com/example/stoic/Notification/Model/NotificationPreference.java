@@ -0,0 +1,35 @@
+package com.example.stoic.Notification.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * What a user does not want to be notified about. Users without a row get
+ * everything.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_preference")
+public class NotificationPreference {
+    @Id
+    @Column(name = "user_id")
+    private int userId;
+
+    // bit n set = the NotificationType with ordinal n is muted
+    @Column(name = "muted_types", nullable = false)
+    private int mutedTypes;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "notification_muted_room", joinColumns = @JoinColumn(name = "user_id"))
+    @Column(name = "room_id")
+    private Set<Integer> mutedRooms = new HashSet<>();
+
+    public static int bit(NotificationType type) {
+        return 1 << type.ordinal();
+    }
+}
@@ -3,6 +3,7 @@ package com.example.stoic.Notification.Model;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Enumerated;
 
+// Ordinals are stored as bits in notification_preference.muted_types: add new types at the end
 public enum NotificationType {
     USER_JOINED,
     POST_CREATED,
@@ -0,0 +1,20 @@
+package com.example.stoic.Notification.Repo;
+
+import com.example.stoic.Notification.Model.NotificationPreference;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationPreferenceRepo extends JpaRepository<NotificationPreference, Integer> {
+
+    // Preferences of many users with their muted rooms, in one query
+    @Query("SELECT DISTINCT p FROM NotificationPreference p LEFT JOIN FETCH p.mutedRooms "
+            + "WHERE p.userId IN :userIds")
+    List<NotificationPreference> findWithMutedRooms(@Param("userIds") Collection<Integer> userIds);
+}
@@ -1,16 +1,22 @@
 package com.example.stoic.Notification.Repo;
 
 import com.example.stoic.Notification.Model.Notification;
+import com.example.stoic.Notification.Model.NotificationType;
+import com.example.stoic.Notification.Service.NotificationDTO;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface NotificationRepo extends JpaRepository<Notification, Integer>, JpaSpecificationExecutor<Notification> {
@@ -26,7 +32,63 @@ public interface NotificationRepo extends JpaRepository<Notification, Integer>,
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.userId = :userId AND n.isRead = false")
     int countUnreadNotificationsByUserId(@Param("userId") Integer userId);
 
-    void deleteByUserUserId(Integer userId);
+    // One inbox page: unread, newest first, strictly after the (sentAt, id) cursor.
+    // A coalesced row that grows keeps its place here; only the live push moves it up
+    @Query("SELECT new com.example.stoic.Notification.Service.NotificationDTO("
+            + "n.id, n.title, n.content, n.type, n.sentAt, n.updatedAt, n.isRead, n.groupCount) "
+            + "FROM Notification n "
+            + "WHERE n.user.userId = :userId AND n.isRead = false "
+            + "AND (:type IS NULL OR n.type = :type) "
+            + "AND (n.sentAt < :sentAt OR (n.sentAt = :sentAt AND n.id < :id)) "
+            + "ORDER BY n.sentAt DESC, n.id DESC")
+    List<NotificationDTO> findInboxPage(@Param("userId") int userId, @Param("type") NotificationType type,
+            @Param("sentAt") LocalDateTime sentAt, @Param("id") int id, Limit limit);
+
+    // rows of (userId, unread count); users with nothing unread are absent
+    @Query("SELECT n.user.userId, COUNT(n) FROM Notification n "
+            + "WHERE n.user.userId IN :userIds AND n.isRead = false GROUP BY n.user.userId")
+    List<Object[]> countUnreadByUserIds(@Param("userIds") List<Integer> userIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.user.userId = :userId")
+    int deleteByUserUserId(@Param("userId") Integer userId);
+
+    // Set-based bulk operations: one statement each instead of load, dirty-check, save
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :now "
+            + "WHERE n.user.userId = :userId AND n.isRead = false")
+    int markAllReadByUserId(@Param("userId") int userId, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :now, n.receivedAt = :now "
+            + "WHERE n.user.userId = :userId AND n.isRead = false")
+    int markAllReadAndReceivedByUserId(@Param("userId") int userId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT n.id FROM Notification n "
+            + "WHERE n.id IN :ids AND n.user.userId = :userId AND n.isRead = false")
+    List<Integer> findUnreadIdsOwnedBy(@Param("ids") List<Integer> ids, @Param("userId") int userId);
+
+    // rows of (id, isRead) for the given ids that belong to the user
+    @Query("SELECT n.id, n.isRead FROM Notification n WHERE n.id IN :ids AND n.user.userId = :userId")
+    List<Object[]> findReadStateOwnedBy(@Param("ids") List<Integer> ids, @Param("userId") int userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :now WHERE n.id IN :ids")
+    int markReadByIds(@Param("ids") List<Integer> ids, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIds(@Param("ids") List<Integer> ids);
+
+    // rewrite a coalesced notification in place, only while its user has not read it;
+    // sent_at is left alone so inbox cursors and retention stay stable
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.content = :content, n.groupCount = :groupCount, n.updatedAt = :now "
+            + "WHERE n.id = :id AND n.isRead = false")
+    int updateCoalesced(@Param("id") int id, @Param("content") String content,
+            @Param("groupCount") int groupCount, @Param("now") LocalDateTime now);
 
     List<Notification> findByUserUserIdAndIsReadFalse(int userId);
 
@@ -0,0 +1,260 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Model.NotificationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open coalescing windows for notifications of the same type and target
+ * (e.g. every like on one post) going to the same user.
+ *
+ * The first event of a window becomes a normal notification row. Later
+ * events inside the window only record their actor in memory; the scheduled
+ * flush in NotificationServiceImpl then rewrites the row once ("ana and 41
+ * others liked your post") however many events arrived since the last flush.
+ * Counts are of distinct actors, so liking, unliking and liking again is
+ * still one person.
+ */
+@Component
+public class NotificationCoalescer {
+
+    private final boolean enabled;
+    private final long windowNanos;
+
+    private final Map<Key, Window> windows = new ConcurrentHashMap<>();
+    private final Map<NotificationType, Counter> events = new EnumMap<>(NotificationType.class);
+    private final Map<NotificationType, Counter> rows = new EnumMap<>(NotificationType.class);
+
+    public NotificationCoalescer(
+            @Value("${stoic.notifications.coalesce.enabled:true}") boolean enabled,
+            @Value("${stoic.notifications.coalesce.window-ms:60000}") long windowMs,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        for (NotificationType type : NotificationType.values()) {
+            Counter in = Counter.builder("notifications.coalesce.events").tag("type", type.name())
+                    .description("Coalescable notification events received").register(meterRegistry);
+            Counter out = Counter.builder("notifications.coalesce.rows").tag("type", type.name())
+                    .description("Notification rows written for coalescable events").register(meterRegistry);
+            events.put(type, in);
+            rows.put(type, out);
+            Gauge.builder("notifications.coalesce.ratio", () -> out.count() == 0 ? 0 : in.count() / out.count())
+                    .tag("type", type.name())
+                    .description("Events per written row")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("notifications.coalesce.windows", windows, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Register an event. Returns a new window if the caller must write the
+     * first row (then {@link #attach} it), or null if the event was absorbed
+     * by an open window.
+     */
+    public Window offer(int userId, NotificationType type, String targetKey, String actor,
+            String title, String action) {
+        events.get(type).increment();
+        long now = System.nanoTime();
+        if (!enabled) {
+            rows.get(type).increment();
+            return new Window(userId, type, targetKey, title, action, actor, now); // never registered
+        }
+        Key key = new Key(userId, type, targetKey);
+        while (true) {
+            Window window = windows.get(key);
+            if (window == null) {
+                Window opened = new Window(userId, type, targetKey, title, action, actor, now + windowNanos);
+                if (windows.putIfAbsent(key, opened) == null) {
+                    rows.get(type).increment();
+                    return opened;
+                }
+            } else if (window.absorb(actor, now)) {
+                return null;
+            } else {
+                windows.remove(key, window); // expired, start a new one
+            }
+        }
+    }
+
+    public void attach(Window window, int notificationId) {
+        window.attach(notificationId);
+    }
+
+    /** A window's first row could not be written; forget it. */
+    public void abandon(Window window) {
+        windows.remove(new Key(window.userId, window.type, window.targetKey), window);
+    }
+
+    /** Windows with events not yet written; expired, fully written windows are dropped. */
+    public List<Window> drainDirty() {
+        long now = System.nanoTime();
+        List<Window> dirty = new ArrayList<>();
+        Iterator<Window> it = windows.values().iterator();
+        while (it.hasNext()) {
+            Window window = it.next();
+            if (window.isDirty()) {
+                dirty.add(window);
+            } else if (window.retire(now)) {
+                it.remove();
+            }
+        }
+        return dirty;
+    }
+
+    /** The window's row was read or deleted, so its pending events went into a new row. */
+    public void countRow(NotificationType type) {
+        rows.get(type).increment();
+    }
+
+    public static final class Window {
+        // past this many actors a window stops deduplicating and counts every event
+        static final int MAX_TRACKED_ACTORS = 1_000;
+
+        final int userId;
+        final NotificationType type;
+        final String targetKey;
+        final String title;
+        final String action;
+        private final long expiresAt;
+        private final Set<String> actors = new HashSet<>();
+        private String latestActor;
+        private boolean retired;
+        private int notificationId; // 0 until the first row is written
+        private int rowCount = 1;   // actors already in the row
+        private int pending;        // new actors not yet written
+
+        Window(int userId, NotificationType type, String targetKey, String title, String action,
+                String actor, long expiresAt) {
+            this.userId = userId;
+            this.type = type;
+            this.targetKey = targetKey;
+            this.title = title;
+            this.action = action;
+            this.latestActor = actor;
+            this.expiresAt = expiresAt;
+            actors.add(actor);
+        }
+
+        synchronized boolean absorb(String actor, long now) {
+            // an expired window keeps absorbing until its pending events are written
+            if (retired || (now - expiresAt > 0 && pending == 0)) {
+                return false;
+            }
+            if (actors.size() >= MAX_TRACKED_ACTORS || actors.add(actor)) {
+                latestActor = actor;
+                pending++;
+            }
+            return true;
+        }
+
+        synchronized void attach(int notificationId) {
+            this.notificationId = notificationId;
+        }
+
+        synchronized boolean isDirty() {
+            return pending > 0;
+        }
+
+        /** Close an expired window that has nothing left to write. */
+        synchronized boolean retire(long now) {
+            if (now - expiresAt > 0 && pending == 0) {
+                retired = true;
+            }
+            return retired;
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public NotificationType getType() {
+            return type;
+        }
+
+        public String getTargetKey() {
+            return targetKey;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        /**
+         * Take the pending events for writing, or null if the first row is not
+         * written yet. The caller then reports the row via {@link #flushed}.
+         */
+        public synchronized Flush take() {
+            if (notificationId == 0 || pending == 0) {
+                return null;
+            }
+            Flush flush = new Flush(notificationId, rowCount + pending, pending, latestActor);
+            pending = 0;
+            return flush;
+        }
+
+        /** The row now holds {@code total} events. */
+        public synchronized void flushed(int notificationId, int total) {
+            this.notificationId = notificationId;
+            this.rowCount = total;
+        }
+    }
+
+    public static final class Flush {
+        public final int notificationId;
+        public final int total;      // actors in the row if it is still open
+        public final int newEvents;  // actors new since the last flush
+        public final String latestActor;
+
+        Flush(int notificationId, int total, int newEvents, String latestActor) {
+            this.notificationId = notificationId;
+            this.total = total;
+            this.newEvents = newEvents;
+            this.latestActor = latestActor;
+        }
+    }
+
+    private static final class Key {
+        final int userId;
+        final NotificationType type;
+        final String target;
+
+        Key(int userId, NotificationType type, String target) {
+            this.userId = userId;
+            this.type = type;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return userId == k.userId && type == k.type && target.equals(k.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, type, target);
+        }
+    }
+}
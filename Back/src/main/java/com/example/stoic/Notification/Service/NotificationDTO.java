@@ -0,0 +1,110 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Model.Notification;
+import com.example.stoic.Notification.Model.NotificationType;
+
+import java.time.LocalDateTime;
+
+// DTO for REAL-TIME notifications
+public class NotificationDTO {
+    private int id;
+    private String title;
+    private String message;
+    private String type;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private boolean isRead;
+    private int groupCount;
+
+    /**
+     * Used by the inbox projection query in NotificationRepo (never loads the user).
+     */
+    public NotificationDTO(int id, String title, String message, NotificationType type, LocalDateTime createdAt,
+            LocalDateTime updatedAt, boolean isRead, int groupCount) {
+        this.id = id;
+        this.title = title;
+        this.message = message;
+        this.type = type.toString();
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.isRead = isRead;
+        this.groupCount = groupCount;
+    }
+
+    public NotificationDTO(Notification notification) {
+        this.id = notification.getId();
+        this.title = notification.getTitle();
+        this.message = notification.getContent();
+        this.type = notification.getType().toString();
+        this.createdAt = notification.getSentAt();
+        this.updatedAt = notification.getUpdatedAt();
+        this.isRead = notification.isRead();
+        this.groupCount = notification.getGroupCount();
+    }
+
+    // Getters and setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public int getGroupCount() {
+        return groupCount;
+    }
+
+    public void setGroupCount(int groupCount) {
+        this.groupCount = groupCount;
+    }
+
+    public boolean isRead() {
+        return isRead;
+    }
+
+    public void setRead(boolean read) {
+        isRead = read;
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Model.NotificationType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One unit of notification fan-out, sent as JSON over the job queue. Only
+ * the fields used by its kind are set.
+ */
+@Data
+@NoArgsConstructor
+public class NotificationJob {
+
+    public enum Kind {
+        /** Notify the members of a room about a chat message. */
+        CHAT_MESSAGE,
+        /** A coalesced notification (like, join) for each recipient. */
+        COALESCED,
+        /** A plain notification for each recipient. */
+        DIRECT
+    }
+
+    private Kind kind;
+    private List<Integer> recipientIds;
+    private NotificationType type;
+    private String title;
+    private String message;
+
+    // COALESCED
+    private String targetKey;
+    private String actor;
+
+    // CHAT_MESSAGE
+    private int roomId;
+    private String roomName;
+    private int senderId;
+    private String senderName;
+
+    public static NotificationJob chatMessage(int roomId, String roomName, int senderId, String senderName,
+            String content) {
+        NotificationJob job = new NotificationJob();
+        job.kind = Kind.CHAT_MESSAGE;
+        job.type = NotificationType.MESSAGE;
+        job.roomId = roomId;
+        job.roomName = roomName;
+        job.senderId = senderId;
+        job.senderName = senderName;
+        job.message = content;
+        return job;
+    }
+
+    /** {@code message} is the action, e.g. "liked your post". */
+    public static NotificationJob coalesced(List<Integer> recipientIds, NotificationType type, String targetKey,
+            String actor, String title, String action) {
+        NotificationJob job = new NotificationJob();
+        job.kind = Kind.COALESCED;
+        job.recipientIds = recipientIds;
+        job.type = type;
+        job.targetKey = targetKey;
+        job.actor = actor;
+        job.title = title;
+        job.message = action;
+        return job;
+    }
+
+    public static NotificationJob direct(int recipientId, String title, String message, NotificationType type) {
+        NotificationJob job = new NotificationJob();
+        job.kind = Kind.DIRECT;
+        job.recipientIds = List.of(recipientId);
+        job.type = type;
+        job.title = title;
+        job.message = message;
+        return job;
+    }
+}
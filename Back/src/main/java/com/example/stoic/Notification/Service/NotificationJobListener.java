@@ -0,0 +1,23 @@
+package com.example.stoic.Notification.Service;
+
+import org.springframework.jms.annotation.JmsListener;
+
+/**
+ * Consumes the notification job queue; registered by NotificationQueueConfig.
+ */
+public class NotificationJobListener {
+
+    private final NotificationJobQueue jobQueue;
+
+    public NotificationJobListener(NotificationJobQueue jobQueue) {
+        this.jobQueue = jobQueue;
+    }
+
+    // with ack-mode transacted or client a thrown exception hands the job back
+    // to the broker for redelivery; with dups_ok it is dropped
+    @JmsListener(destination = "${stoic.notifications.queue.name:stoic.notifications.fanout}",
+            containerFactory = NotificationQueueConfig.LISTENER_FACTORY)
+    public void onJob(NotificationJob job) {
+        jobQueue.handle(job);
+    }
+}
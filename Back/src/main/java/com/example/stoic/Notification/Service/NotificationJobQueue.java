@@ -0,0 +1,118 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Room.Service.WebSockets.ChatNotificationFanout;
+import com.example.stoic.User.Repo.UserRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Entry point for notification fan-out (opt-in, stoic.notifications.queue.enabled).
+ *
+ * When enabled, {@link #submit} puts the job on a persistent JMS queue once
+ * the caller's transaction commits, and consumers on any node run it through
+ * {@link #handle}; see NotificationQueueConfig for the consumer tuning.
+ * When disabled the job runs inline on the calling thread, as before.
+ */
+@Component
+public class NotificationJobQueue {
+
+    private final ObjectProvider<JmsTemplate> jmsTemplate;
+    private final NotificationService notificationService;
+    private final ChatNotificationFanout chatFanout;
+    private final UserRepo userRepo;
+    private final NotificationPreferences preferences;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String queueName;
+
+    public NotificationJobQueue(ObjectProvider<JmsTemplate> jmsTemplate, NotificationService notificationService,
+            ChatNotificationFanout chatFanout, UserRepo userRepo, NotificationPreferences preferences,
+            MeterRegistry meterRegistry,
+            @Value("${stoic.notifications.queue.enabled:false}") boolean enabled,
+            @Value("${stoic.notifications.queue.name:stoic.notifications.fanout}") String queueName) {
+        this.jmsTemplate = jmsTemplate;
+        this.notificationService = notificationService;
+        this.chatFanout = chatFanout;
+        this.userRepo = userRepo;
+        this.preferences = preferences;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.queueName = queueName;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void submit(NotificationJob job) {
+        if (!enabled) {
+            handle(job);
+            return;
+        }
+        afterCommit(() -> {
+            try {
+                jmsTemplate.getObject().convertAndSend(queueName, job, message -> {
+                    if (job.getKind() == NotificationJob.Kind.CHAT_MESSAGE) {
+                        // one consumer at a time per room keeps its notifications in send order
+                        message.setStringProperty("JMSXGroupID", "room:" + job.getRoomId());
+                    }
+                    return message;
+                });
+                meterRegistry.counter("notifications.jobs.submitted", "kind", job.getKind().name()).increment();
+            } catch (Exception e) {
+                // the broker is unreachable; do the work here rather than drop it
+                System.err.println("❌ Error queueing notification job, running inline: " + e.getMessage());
+                handle(job);
+            }
+        });
+    }
+
+    /** Run a job on the current thread. */
+    public void handle(NotificationJob job) {
+        Timer.builder("notifications.jobs.handle")
+                .tag("kind", job.getKind().name())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(() -> dispatch(job));
+    }
+
+    private void dispatch(NotificationJob job) {
+        switch (job.getKind()) {
+            case CHAT_MESSAGE -> chatFanout.notifyMembers(job.getRoomId(), job.getRoomName(), job.getSenderId(),
+                    job.getSenderName(), job.getMessage());
+            case COALESCED -> {
+                preferences.load(job.getRecipientIds()); // one query, then checked per recipient
+                for (Integer recipientId : job.getRecipientIds()) {
+                    notificationService.createCoalescedNotification(userRepo.getReferenceById(recipientId),
+                            job.getType(), job.getTargetKey(), job.getActor(), job.getTitle(), job.getMessage());
+                }
+            }
+            case DIRECT -> {
+                for (Integer recipientId : job.getRecipientIds()) {
+                    notificationService.sendNotificationToUser(recipientId, job.getTitle(), job.getMessage(),
+                            job.getType());
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.stoic.Notification.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for notification pushes.
+ *
+ * {@link #enqueue} writes the push into notification_outbox on the caller's
+ * transaction, so a rolled-back change never reaches a client and the commit
+ * does not wait on the broker. A relay thread, woken after each commit and by
+ * a periodic poll, claims rows with FOR UPDATE SKIP LOCKED (so several nodes
+ * can relay side by side), publishes them and deletes them in the same short
+ * transaction. Delivery is at-least-once: a crash between publish and commit
+ * sends the rows again, and each message carries its row id in an
+ * "outbox-id" header for receivers that need to drop repeats.
+ */
+@Component
+public class NotificationOutbox {
+
+    public static final String OUTBOX_ID_HEADER = "outbox-id";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification_outbox (destination, payload, created_at) VALUES (?, ?, ?)";
+    private static final String CLAIM_SQL = "SELECT id, destination, payload, created_at "
+            + "FROM notification_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final ExecutorService relay;
+    private final AtomicBoolean wakeQueued = new AtomicBoolean();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private final Counter published;
+    private final Timer delay;
+
+    public NotificationOutbox(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+            @Value("${stoic.notifications.outbox.enabled:true}") boolean enabled,
+            @Value("${stoic.notifications.outbox.batch-size:200}") int batchSize,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.relay = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "notification-outbox-relay");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.published = Counter.builder("notifications.outbox.published")
+                .description("Outbox rows published to the broker")
+                .register(meterRegistry);
+        this.delay = Timer.builder("notifications.outbox.delay")
+                .description("Time from outbox insert to publish")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("notifications.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox row at the last relay pass")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(String destination, Object payload) {
+        enqueue(destination, List.of(payload));
+    }
+
+    /**
+     * Queue one push per payload to the same destination. Inside a transaction
+     * the rows commit (or roll back) with it; outside one they are written
+     * right away.
+     */
+    public void enqueue(String destination, List<?> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        List<String> bodies = new ArrayList<>(payloads.size());
+        for (Object payload : payloads) {
+            bodies.add(toJson(payload));
+        }
+        if (!enabled) {
+            afterCommit(() -> bodies.forEach(body -> publish(destination, body, null)));
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(bodies.size());
+        for (String body : bodies) {
+            rows.add(new Object[] { destination, body, now });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        afterCommit(this::wake);
+    }
+
+    @Scheduled(fixedDelayString = "${stoic.notifications.outbox.poll-ms:1000}")
+    public void poll() {
+        if (enabled) {
+            wake();
+        }
+    }
+
+    /** Schedule a relay pass unless one is already waiting to start. */
+    void wake() {
+        if (wakeQueued.compareAndSet(false, true)) {
+            try {
+                relay.execute(() -> {
+                    wakeQueued.set(false);
+                    drain();
+                });
+            } catch (RuntimeException e) {
+                wakeQueued.set(false); // shutting down
+            }
+        }
+    }
+
+    void drain() {
+        try {
+            while (relayBatch() == batchSize) {
+                // a full batch means there may be more
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Notification outbox relay failed: " + e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        Integer sent = transactionTemplate.execute(status -> {
+            List<Object[]> rows = jdbcTemplate.query(CLAIM_SQL, (rs, i) -> new Object[] {
+                    rs.getLong(1), rs.getString(2), rs.getString(3), rs.getTimestamp(4).toLocalDateTime() },
+                    batchSize);
+            if (rows.isEmpty()) {
+                lagMillis.set(0);
+                return 0;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            lagMillis.set(Duration.between((LocalDateTime) rows.get(0)[3], now).toMillis());
+
+            List<Object[]> ids = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                publish((String) row[1], (String) row[2], (Long) row[0]);
+                delay.record(Duration.between((LocalDateTime) row[3], now));
+                ids.add(new Object[] { row[0] });
+            }
+            jdbcTemplate.batchUpdate("DELETE FROM notification_outbox WHERE id = ?", ids);
+            return rows.size();
+        });
+        published.increment(sent);
+        return sent;
+    }
+
+    private void publish(String destination, String body, Long outboxId) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (outboxId != null) {
+            headers.setNativeHeader(OUTBOX_ID_HEADER, outboxId.toString());
+        }
+        headers.setLeaveMutable(true);
+        messagingTemplate.send(destination,
+                MessageBuilder.createMessage(body.getBytes(StandardCharsets.UTF_8), headers.getMessageHeaders()));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode outbox payload", e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        relay.shutdown();
+        relay.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
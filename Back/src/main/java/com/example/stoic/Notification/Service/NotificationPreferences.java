@@ -0,0 +1,199 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Model.NotificationPreference;
+import com.example.stoic.Notification.Model.NotificationType;
+import com.example.stoic.Notification.Repo.NotificationPreferenceRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user notification preferences: a bitset of muted types and a sorted
+ * array of muted room ids, held in a bounded LRU cache so the fan-out can
+ * check every recipient without touching the DB.
+ *
+ * Users without a row are cached too (as "nothing muted"), which is most of
+ * them. Entries expire after ttl-ms, so a change made on another node shows
+ * up here within that time; changes made here apply right after commit.
+ */
+@Component
+public class NotificationPreferences {
+
+    private static final int[] NO_ROOMS = new int[0];
+
+    private final NotificationPreferenceRepo preferenceRepo;
+    private final long ttlNanos;
+    private final Map<Integer, Prefs> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Map<NotificationType, Counter> avoided = new EnumMap<>(NotificationType.class);
+
+    public NotificationPreferences(NotificationPreferenceRepo preferenceRepo,
+            @Value("${stoic.notifications.preferences.max-users:100000}") int maxUsers,
+            @Value("${stoic.notifications.preferences.ttl-ms:60000}") long ttlMs,
+            MeterRegistry meterRegistry) {
+        this.preferenceRepo = preferenceRepo;
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Prefs> eldest) {
+                return size() > maxUsers;
+            }
+        };
+        for (NotificationType type : NotificationType.values()) {
+            avoided.put(type, Counter.builder("notifications.preferences.writes_avoided")
+                    .tag("type", type.name())
+                    .description("Notifications not written because the recipient muted them")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("notifications.preferences.cache.size", this, NotificationPreferences::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether {@code userId} wants a notification of {@code type}, about
+     * {@code roomId} if it concerns a room (null otherwise). A false answer
+     * is counted as an avoided write.
+     */
+    public boolean allows(int userId, NotificationType type, Integer roomId) {
+        Prefs prefs = cached(userId);
+        if (prefs == null) {
+            load(List.of(userId));
+            prefs = cached(userId);
+        }
+        if (prefs == null || !prefs.mutes(type, roomId)) {
+            return true;
+        }
+        avoided.get(type).increment();
+        return false;
+    }
+
+    /**
+     * Bring the preferences of all {@code userIds} into the cache with one
+     * query for the ones missing, so a fan-out can then call {@link #allows}
+     * per recipient.
+     */
+    public void load(Collection<Integer> userIds) {
+        List<Integer> missing = new ArrayList<>();
+        for (Integer userId : userIds) {
+            if (cached(userId) == null) {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        long seen = invalidations.get();
+        Map<Integer, Prefs> loaded = new HashMap<>();
+        long expiresAt = System.nanoTime() + ttlNanos;
+        for (NotificationPreference p : preferenceRepo.findWithMutedRooms(missing)) {
+            loaded.put(p.getUserId(), Prefs.of(p, expiresAt));
+        }
+        synchronized (entries) {
+            if (invalidations.get() != seen) {
+                return; // a change committed meanwhile; the next call reloads
+            }
+            for (Integer userId : missing) {
+                entries.put(userId, loaded.getOrDefault(userId, new Prefs(0, NO_ROOMS, expiresAt)));
+            }
+        }
+    }
+
+    public NotificationPreference get(int userId) {
+        return preferenceRepo.findWithMutedRooms(List.of(userId)).stream().findFirst()
+                .orElseGet(() -> new NotificationPreference(userId, 0, Set.of()));
+    }
+
+    public static Set<NotificationType> mutedTypes(NotificationPreference preference) {
+        Set<NotificationType> types = EnumSet.noneOf(NotificationType.class);
+        for (NotificationType type : NotificationType.values()) {
+            if ((preference.getMutedTypes() & NotificationPreference.bit(type)) != 0) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    @Transactional
+    public NotificationPreference update(int userId, Collection<NotificationType> mutedTypes,
+            Collection<Integer> mutedRooms) {
+        int bits = 0;
+        for (NotificationType type : mutedTypes) {
+            bits |= NotificationPreference.bit(type);
+        }
+        NotificationPreference preference = preferenceRepo.findById(userId)
+                .orElseGet(() -> new NotificationPreference(userId, 0, new HashSet<>()));
+        preference.setMutedTypes(bits);
+        preference.getMutedRooms().clear();
+        preference.getMutedRooms().addAll(mutedRooms);
+        NotificationPreference saved = preferenceRepo.save(preference);
+        invalidate(userId);
+        return saved;
+    }
+
+    /** Drop a user now and again after commit, so a reload in between is not kept. */
+    private void invalidate(int userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private void evict(int userId) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(userId);
+        }
+    }
+
+    private Prefs cached(int userId) {
+        Prefs prefs;
+        synchronized (entries) {
+            prefs = entries.get(userId);
+        }
+        return prefs != null && prefs.expiresAt - System.nanoTime() > 0 ? prefs : null;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Prefs(int mutedTypes, int[] mutedRooms, long expiresAt) {
+
+        static Prefs of(NotificationPreference p, long expiresAt) {
+            int[] rooms = p.getMutedRooms().stream().mapToInt(Integer::intValue).sorted().toArray();
+            return new Prefs(p.getMutedTypes(), rooms, expiresAt);
+        }
+
+        boolean mutes(NotificationType type, Integer roomId) {
+            return (mutedTypes & NotificationPreference.bit(type)) != 0
+                    || (roomId != null && Arrays.binarySearch(mutedRooms, roomId) >= 0);
+        }
+    }
+}
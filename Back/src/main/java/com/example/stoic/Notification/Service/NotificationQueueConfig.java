@@ -0,0 +1,86 @@
+package com.example.stoic.Notification.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Session;
+import org.apache.activemq.ActiveMQPrefetchPolicy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jms.DefaultJmsListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.jms.activemq.ActiveMQConnectionFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.support.converter.MappingJackson2MessageConverter;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.converter.MessageType;
+
+/**
+ * JMS setup for the notification job queue, only loaded when the queue is on.
+ *
+ * - concurrency: consumers per node, "min-max" (e.g. "2-8"); the container
+ *   adds consumers up to max while there is a backlog
+ * - prefetch: jobs the broker pushes to a consumer ahead of time; kept low so
+ *   a burst is spread over every consumer on every node instead of piling up
+ *   on the first one to connect
+ * - ack-mode: transacted receives each job in a local JMS transaction that
+ *   rolls back when the listener throws, so the broker redelivers it (and
+ *   after its redelivery limit moves it to the DLQ); client acknowledges each
+ *   job after it succeeds and recovers the session on failure; dups_ok
+ *   acknowledges lazily in batches with the fewest broker round trips, but a
+ *   job whose listener throws is not redelivered
+ * - chat jobs carry their room as JMSXGroupID, so the broker hands one room's
+ *   jobs to one consumer at a time and they run in send order
+ * - consume: false turns this node into a producer only
+ */
+@Configuration
+@ConditionalOnProperty(name = "stoic.notifications.queue.enabled", havingValue = "true")
+public class NotificationQueueConfig {
+
+    public static final String LISTENER_FACTORY = "notificationJobListenerFactory";
+
+    @Bean
+    public MessageConverter jacksonJmsMessageConverter(ObjectMapper objectMapper) {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        converter.setTargetType(MessageType.TEXT);
+        converter.setTypeIdPropertyName("_type");
+        return converter;
+    }
+
+    @Bean
+    public ActiveMQConnectionFactoryCustomizer notificationQueuePrefetch(
+            @Value("${stoic.notifications.queue.prefetch:10}") int prefetch) {
+        return factory -> {
+            ActiveMQPrefetchPolicy policy = new ActiveMQPrefetchPolicy();
+            policy.setQueuePrefetch(prefetch);
+            factory.setPrefetchPolicy(policy);
+        };
+    }
+
+    @Bean(LISTENER_FACTORY)
+    public DefaultJmsListenerContainerFactory notificationJobListenerFactory(
+            DefaultJmsListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${stoic.notifications.queue.concurrency:2-8}") String concurrency,
+            @Value("${stoic.notifications.queue.ack-mode:transacted}") String ackMode,
+            @Value("${stoic.notifications.queue.consume:true}") boolean consume) {
+        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrency(concurrency);
+        factory.setSessionTransacted(ackMode.equals("transacted"));
+        factory.setSessionAcknowledgeMode(switch (ackMode) {
+            case "transacted" -> Session.SESSION_TRANSACTED;
+            case "dups_ok" -> Session.DUPS_OK_ACKNOWLEDGE;
+            case "client" -> Session.CLIENT_ACKNOWLEDGE;
+            default -> throw new IllegalArgumentException("Unknown stoic.notifications.queue.ack-mode: " + ackMode);
+        });
+        factory.setAutoStartup(consume);
+        return factory;
+    }
+
+    @Bean
+    public NotificationJobListener notificationJobListener(NotificationJobQueue jobQueue) {
+        return new NotificationJobListener(jobQueue);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Model.NotificationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes read notifications once they are older than their type's TTL.
+ *
+ * Rows go in chunks of chunk-size, each its own autocommitted DELETE ... LIMIT,
+ * with a pause between chunks. That keeps every statement's locks and binlog
+ * event small and leaves room for normal traffic. Unread rows are never
+ * purged, so the cached unread counters stay correct.
+ */
+@Component
+public class NotificationRetentionJob {
+
+    private static final String PURGE_SQL = "DELETE FROM notification "
+            + "WHERE type = ? AND is_read = true AND sent_at < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Map<NotificationType, Integer> ttlDays;
+    private final int chunkSize;
+    private final long pauseMs;
+
+    private final Map<NotificationType, Counter> purged = new EnumMap<>(NotificationType.class);
+    private final Timer chunkTimer;
+
+    private volatile boolean stopping;
+
+    public NotificationRetentionJob(JdbcTemplate jdbcTemplate,
+            @Value("${stoic.notifications.retention.enabled:true}") boolean enabled,
+            @Value("${stoic.notifications.retention.read-ttl-days:}") String ttlDays,
+            @Value("${stoic.notifications.retention.default-read-ttl-days:30}") int defaultTtlDays,
+            @Value("${stoic.notifications.retention.chunk-size:1000}") int chunkSize,
+            @Value("${stoic.notifications.retention.pause-ms:200}") long pauseMs,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.ttlDays = parseTtls(ttlDays, defaultTtlDays);
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        for (NotificationType type : NotificationType.values()) {
+            purged.put(type, Counter.builder("notifications.retention.purged")
+                    .tag("type", type.name())
+                    .description("Notification rows deleted by the retention job")
+                    .register(meterRegistry));
+        }
+        this.chunkTimer = Timer.builder("notifications.retention.chunk")
+                .description("Time per purge DELETE chunk")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * "MESSAGE:7,SYSTEM_UPDATE:90" -> TTL in days per type; unlisted types get
+     * the default and a TTL of 0 or less keeps that type forever.
+     */
+    static Map<NotificationType, Integer> parseTtls(String spec, int defaultTtlDays) {
+        Map<NotificationType, Integer> ttls = new EnumMap<>(NotificationType.class);
+        for (NotificationType type : NotificationType.values()) {
+            ttls.put(type, defaultTtlDays);
+        }
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Bad retention entry '" + entry + "', expected TYPE:days");
+            }
+            ttls.put(NotificationType.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return ttls;
+    }
+
+    @Scheduled(cron = "${stoic.notifications.retention.cron:0 30 3 * * *}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        for (Map.Entry<NotificationType, Integer> ttl : ttlDays.entrySet()) {
+            if (ttl.getValue() > 0) {
+                total += purge(ttl.getKey(), now.minusDays(ttl.getValue()));
+            }
+        }
+        System.out.println("🧹 Notification retention purged " + total + " rows");
+    }
+
+    long purge(NotificationType type, LocalDateTime cutoff) {
+        long deleted = 0;
+        Timestamp before = Timestamp.valueOf(cutoff);
+        while (!stopping) {
+            long start = System.nanoTime();
+            int rows;
+            try {
+                rows = jdbcTemplate.update(PURGE_SQL, type.name(), before, chunkSize);
+            } catch (Exception e) {
+                System.err.println("❌ Retention purge failed for " + type + ": " + e.getMessage());
+                break;
+            }
+            chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            purged.get(type).increment(rows);
+            deleted += rows;
+            if (rows < chunkSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.stoic.Notification.Service;
 import com.example.stoic.Notification.Model.Notification;
 import com.example.stoic.Notification.Model.NotificationType;
 import com.example.stoic.User.Model.User;
+import com.example.stoic.common.CursorPage;
 
 import java.util.List;
 
@@ -10,14 +11,34 @@ import org.springframework.data.relational.core.sql.In;
 
 public interface NotificationService {
 
+    /**
+     * Returns null, and writes nothing, when the user has muted {@code type}.
+     */
     Notification createNotification(User user, String title, String message, NotificationType type);
 
     void sendNotificationToUser(int userId, String title, String message, NotificationType type);
 
+    /**
+     * Notify {@code recipient} that {@code actor} did {@code action} (e.g. "liked
+     * your post") on {@code targetKey}, unless the recipient muted the type
+     * (or the room, for "room:{id}" targets). Events of the same type and target within
+     * the coalescing window are merged into one row ("ana and 41 others liked
+     * your post") that is updated in place while unread.
+     */
+    void createCoalescedNotification(User recipient, NotificationType type, String targetKey,
+            String actor, String title, String action);
+
     List<Notification> getUserNotifications(int userId);
 
     List<Notification> getUnreadNotifications(int userId);
 
+    /**
+     * One page of a user's unread notifications, newest first. {@code before} is
+     * the "sentAt,id" cursor of the previous page (null for the first page);
+     * {@code type} optionally narrows the page to one type.
+     */
+    CursorPage<NotificationDTO> getInboxPage(int userId, String before, NotificationType type, int limit);
+
     int getUnreadCount(int userId);
 
     boolean markAsRead(int notificationId, int userId);
@@ -28,11 +49,39 @@ public interface NotificationService {
 
     Notification createNotification(Notification notification);
 
+    /**
+     * Insert the same notification for many recipients in JDBC batches inside
+     * one transaction. Returns the generated ids in recipient order.
+     * Preferences are not checked here; callers filter the recipients first
+     * with {@link NotificationPreferences}.
+     */
+    List<Integer> createNotifications(List<Integer> userIds, String title, String message, NotificationType type);
+
+    /**
+     * Give every user (except those who muted {@code type}) the same
+     * notification with chunked INSERT ... SELECT statements, then publish it
+     * once to the shared broadcast topic. Returns the number of rows written.
+     */
+    int broadcastNotification(String title, String message, NotificationType type);
+
     List<Notification> getAllNotifications();
 
     Notification getNotificationById(int id);
 
     void markAllReadForUser(int userId);
 
+    /**
+     * Mark the listed notifications of a user as read in one statement.
+     * Ids that are not the user's, or already read, are ignored. Returns the
+     * ids that changed.
+     */
+    List<Integer> markAsRead(List<Integer> notificationIds, int userId);
+
+    /**
+     * Delete the listed notifications of a user in one statement. Ids that are
+     * not the user's are ignored. Returns the ids that were deleted.
+     */
+    List<Integer> deleteNotifications(List<Integer> notificationIds, int userId);
+
     void deleteNotificationById(int id);
 }
@@ -1,17 +1,32 @@
 package com.example.stoic.Notification.Service;
 
 import com.example.stoic.Notification.Model.Notification;
+import com.example.stoic.Notification.Model.NotificationPreference;
 import com.example.stoic.Notification.Model.NotificationType;
 import com.example.stoic.Notification.Repo.NotificationRepo;
 import com.example.stoic.User.Model.User;
 import com.example.stoic.User.Repo.UserRepo;
+import com.example.stoic.common.CursorPage;
+import com.example.stoic.common.StompPayloadEncoder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -25,18 +40,63 @@ public class NotificationServiceImpl implements NotificationService {
     private UserRepo userRepo;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate; // For REAL-TIME WebSocket messaging
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    @Autowired
+    private NotificationCoalescer coalescer;
+
+    @Autowired
+    private NotificationOutbox outbox;
+
+    @Autowired
+    private NotificationPreferences preferences;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private StompPayloadEncoder payloadEncoder;
+
+    @Value("${stoic.notifications.batch-size:500}")
+    private int batchSize;
+
+    @Value("${stoic.notifications.broadcast.chunk-size:10000}")
+    private int broadcastChunk;
+
+    private static final int MAX_INBOX_PAGE = 100;
+    // first-page cursor; MySQL DATETIME cannot hold LocalDateTime.MAX
+    private static final LocalDateTime INBOX_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final String INSERT_NOTIFICATION_SQL = "INSERT INTO notification "
+            + "(user_id, title, type, content, sent_at, is_read) VALUES (?, ?, ?, ?, ?, false)";
+
+    // one notification per user in a user_id range, skipping users who muted the type
+    private static final String BROADCAST_CHUNK_SQL = "INSERT INTO notification "
+            + "(user_id, title, type, content, sent_at, is_read) "
+            + "SELECT u.user_id, ?, ?, ?, ?, false FROM users u "
+            + "LEFT JOIN notification_preference p ON p.user_id = u.user_id "
+            + "WHERE u.user_id >= ? AND u.user_id < ? "
+            + "AND (p.muted_types IS NULL OR (p.muted_types & ?) = 0)";
+
+    public static final String BROADCAST_TOPIC = "/topic/notifications/broadcast";
 
     @Override
     public Notification createNotification(User user, String title, String message, NotificationType type) {
+        if (!preferences.allows(user.getUserId(), type, null)) {
+            return null;
+        }
         try {
             Notification notification = new Notification(user, title, message, type);
             Notification savedNotification = notificationRepo.save(notification);
+            unreadCounter.adjust(user.getUserId(), 1);
 
-            // 🚀 SEND REAL-TIME NOTIFICATION via WebSocket
+            // 🚀 REAL-TIME NOTIFICATION, published by the outbox relay after commit
             sendRealTimeNotification(user.getUserId(), savedNotification);
 
-            System.out.println("✅ REAL-TIME notification sent to user: " + user.getUsername());
+            System.out.println("✅ REAL-TIME notification queued for user: " + user.getUsername());
             System.out.println("📢 Title: " + title);
             System.out.println("📝 Message: " + message);
 
@@ -48,21 +108,89 @@ public class NotificationServiceImpl implements NotificationService {
         }
     }
 
-    // 🚀 REAL-TIME notification sender
-    private void sendRealTimeNotification(int userId, Notification notification) {
+    @Override
+    public void createCoalescedNotification(User recipient, NotificationType type, String targetKey,
+            String actor, String title, String action) {
+        if (!preferences.allows(recipient.getUserId(), type, roomOf(targetKey))) {
+            return;
+        }
+        NotificationCoalescer.Window window = coalescer.offer(
+                recipient.getUserId(), type, targetKey, actor, title, action);
+        if (window == null) {
+            return; // merged into an open window, written by the next flush
+        }
         try {
-            NotificationDTO notificationDTO = new NotificationDTO(notification);
+            Notification notification = new Notification(recipient, title, groupedMessage(actor, 1, action), type);
+            notification.setTargetKey(targetKey);
+            Notification saved = notificationRepo.save(notification);
+            coalescer.attach(window, saved.getId());
+            unreadCounter.adjust(recipient.getUserId(), 1);
+            sendRealTimeNotification(recipient.getUserId(), saved);
+        } catch (Exception e) {
+            coalescer.abandon(window);
+            System.err.println("❌ Error creating notification: " + e.getMessage());
+            throw new RuntimeException("Failed to create notification", e);
+        }
+    }
 
-            // Send to specific user via WebSocket
-            messagingTemplate.convertAndSend(
-                    "/topic/notifications/" + userId,
-                    notificationDTO);
+    /**
+     * Write the events merged into open coalescing windows since the last run:
+     * one UPDATE per window, or a fresh row if the old one was read meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${stoic.notifications.coalesce.flush-ms:2000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // one short transaction per window
+    public void flushCoalescedNotifications() {
+        for (NotificationCoalescer.Window window : coalescer.drainDirty()) {
+            NotificationCoalescer.Flush flush = window.take();
+            if (flush == null) {
+                continue;
+            }
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                String content = groupedMessage(flush.latestActor, flush.total, window.getAction());
+                Notification notification = new Notification();
+                if (notificationRepo.updateCoalesced(flush.notificationId, content, flush.total, now) == 1) {
+                    notification.setId(flush.notificationId);
+                    notification.setGroupCount(flush.total);
+                    notification.setUpdatedAt(now); // sent_at stays the first event's
+                } else {
+                    notification = new Notification(userRepo.getReferenceById(window.getUserId()), window.getTitle(),
+                            groupedMessage(flush.latestActor, flush.newEvents, window.getAction()), window.getType());
+                    notification.setTargetKey(window.getTargetKey());
+                    notification.setGroupCount(flush.newEvents);
+                    notification = notificationRepo.save(notification);
+                    coalescer.countRow(window.getType());
+                    unreadCounter.adjust(window.getUserId(), 1);
+                    content = notification.getContent();
+                }
+                window.flushed(notification.getId(), notification.getGroupCount());
+
+                notification.setTitle(window.getTitle());
+                notification.setType(window.getType());
+                notification.setContent(content);
+                sendRealTimeNotification(window.getUserId(), notification);
+            } catch (Exception e) {
+                System.err.println("❌ Error flushing coalesced notification: " + e.getMessage());
+            }
+        }
+    }
 
-            System.out.println("🚀 REAL-TIME notification sent via WebSocket to user: " + userId);
+    // "room:12" -> 12, so room notices honour muted rooms
+    private static Integer roomOf(String targetKey) {
+        return targetKey != null && targetKey.startsWith("room:") ? Integer.valueOf(targetKey.substring(5)) : null;
+    }
 
-        } catch (Exception e) {
-            System.err.println("❌ Error sending real-time notification: " + e.getMessage());
+    static String groupedMessage(String actor, int count, String action) {
+        if (count <= 1) {
+            return actor + " " + action;
         }
+        int others = count - 1;
+        return actor + " and " + others + (others == 1 ? " other " : " others ") + action;
+    }
+
+    // 🚀 REAL-TIME notification sender; the outbox row commits with the notification
+    private void sendRealTimeNotification(int userId, Notification notification) {
+        outbox.enqueue("/topic/notifications/" + userId, new NotificationDTO(notification));
     }
 
     @Override
@@ -90,9 +218,31 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationRepo.findByUserUserIdAndIsReadFalseOrderBySentAtDesc(userId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDTO> getInboxPage(int userId, String before, NotificationType type, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_INBOX_PAGE));
+        LocalDateTime sentAt = INBOX_START;
+        int id = Integer.MAX_VALUE;
+        if (before != null && !before.isBlank()) {
+            int comma = before.lastIndexOf(',');
+            try {
+                sentAt = LocalDateTime.parse(before.substring(0, comma));
+                id = Integer.parseInt(before.substring(comma + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + before, e);
+            }
+        }
+        List<NotificationDTO> page = notificationRepo.findInboxPage(userId, type, sentAt, id, Limit.of(size));
+        NotificationDTO last = page.isEmpty() ? null : page.get(page.size() - 1);
+        // a short page means there is nothing older left
+        String next = page.size() == size ? last.getCreatedAt() + "," + last.getId() : null;
+        return new CursorPage<>(page, next);
+    }
+
     @Override
     public int getUnreadCount(int userId) {
-        return notificationRepo.countUnreadNotificationsByUserId(userId);
+        return unreadCounter.get(userId);
     }
 
     @Override
@@ -107,13 +257,14 @@ public class NotificationServiceImpl implements NotificationService {
                     return false;
                 }
 
+                if (!notification.isRead()) {
+                    unreadCounter.adjust(userId, -1);
+                }
                 notification.setIsRead(true);
                 notificationRepo.save(notification);
 
                 // 🚀 Send REAL-TIME update about read status
-                messagingTemplate.convertAndSend(
-                        "/topic/notifications/" + userId + "/read",
-                        notificationId);
+                outbox.enqueue("/topic/notifications/" + userId + "/read", notificationId);
 
                 System.out.println("✅ Notification marked as read and sent real-time update: " + notificationId);
                 return true;
@@ -129,18 +280,11 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public boolean markAllAsRead(int userId) {
         try {
-            List<Notification> unreadNotifications = getUnreadNotifications(userId);
-
-            for (Notification notification : unreadNotifications) {
-                notification.setIsRead(true);
-            }
-
-            notificationRepo.saveAll(unreadNotifications);
+            int updated = notificationRepo.markAllReadByUserId(userId, LocalDateTime.now());
+            unreadCounter.adjust(userId, -updated);
 
             // 🚀 Send REAL-TIME update about all notifications being read
-            messagingTemplate.convertAndSend(
-                    "/topic/notifications/" + userId + "/read-all",
-                    "all-read");
+            outbox.enqueue("/topic/notifications/" + userId + "/read-all", "all-read");
 
             System.out.println("✅ All notifications marked as read with real-time update for user: " + userId);
             return true;
@@ -164,11 +308,12 @@ public class NotificationServiceImpl implements NotificationService {
                 }
 
                 notificationRepo.delete(notification);
+                if (!notification.isRead()) {
+                    unreadCounter.adjust(userId, -1);
+                }
 
                 // 🚀 Send REAL-TIME update about deletion
-                messagingTemplate.convertAndSend(
-                        "/topic/notifications/" + userId + "/deleted",
-                        notificationId);
+                outbox.enqueue("/topic/notifications/" + userId + "/deleted", notificationId);
 
                 System.out.println("✅ Notification deleted with real-time update: " + notificationId);
                 return true;
@@ -183,7 +328,82 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public Notification createNotification(Notification notification) {
-        return notificationRepo.save(notification);
+        Notification saved = notificationRepo.save(notification);
+        if (!saved.isRead() && saved.getUser() != null) {
+            unreadCounter.adjust(saved.getUser().getUserId(), 1);
+        }
+        return saved;
+    }
+
+    @Override
+    public List<Integer> createNotifications(List<Integer> userIds, String title, String message,
+            NotificationType type) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        Timestamp sentAt = Timestamp.valueOf(LocalDateTime.now());
+
+        // Plain JDBC so the rows go out in batches and the generated ids come back
+        // with them; the connection is the one bound to this transaction
+        return jdbcTemplate.execute((ConnectionCallback<List<Integer>>) connection -> {
+            List<Integer> ids = new ArrayList<>(userIds.size());
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_NOTIFICATION_SQL,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < userIds.size(); from += batchSize) {
+                    int to = Math.min(from + batchSize, userIds.size());
+                    for (int i = from; i < to; i++) {
+                        ps.setInt(1, userIds.get(i));
+                        ps.setString(2, title);
+                        ps.setString(3, type.name());
+                        ps.setString(4, message);
+                        ps.setTimestamp(5, sentAt);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            ids.add(keys.getInt(1));
+                        }
+                    }
+                }
+            }
+            unreadCounter.increment(userIds);
+            return ids;
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // each chunk commits on its own
+    public int broadcastNotification(String title, String message, NotificationType type) {
+        Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(user_id) lo, MAX(user_id) hi FROM users");
+        if (range.get("lo") == null) {
+            return 0;
+        }
+        long lo = ((Number) range.get("lo")).longValue();
+        long hi = ((Number) range.get("hi")).longValue();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp sentAt = Timestamp.valueOf(now);
+        int mutedBit = NotificationPreference.bit(type);
+
+        // Chunks by primary key range keep each statement's locks and undo log small
+        int written = 0;
+        for (long from = lo; from <= hi; from += broadcastChunk) {
+            written += jdbcTemplate.update(BROADCAST_CHUNK_SQL, title, type.name(), message, sentAt,
+                    from, from + broadcastChunk, mutedBit);
+        }
+        // cached unread counts are now all stale by one; let them reseed from the DB
+        unreadCounter.invalidateAll();
+
+        // One publish for everyone instead of one per user topic
+        Notification notification = new Notification();
+        notification.setTitle(title);
+        notification.setContent(message);
+        notification.setType(type);
+        notification.setSentAt(now);
+        messagingTemplate.send(BROADCAST_TOPIC, payloadEncoder.encode(new NotificationDTO(notification)));
+
+        System.out.println("📣 Broadcast notification written for " + written + " users");
+        return written;
     }
 
     @Override
@@ -200,91 +420,60 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public void deleteNotificationById(int id) {
-        notificationRepo.deleteById(id);
+        notificationRepo.findById(id).ifPresent(n -> {
+            notificationRepo.delete(n);
+            if (!n.isRead()) {
+                unreadCounter.adjust(n.getUser().getUserId(), -1);
+            }
+        });
     }
 
     // NotificationServiceImpl.java
     // NotificationServiceImpl.java
     @Override
     public void markAllReadForUser(int userId) {
-        List<Notification> unread = notificationRepo.findByUserUserIdAndIsReadFalse(userId);
-        System.out.println("Marking " + unread.size() + " notifications as read for user: " + userId);
-
-        unread.forEach(n -> {
-            n.setRead(true);
-            n.setReceivedAt(LocalDateTime.now());
-        });
-
-        notificationRepo.saveAll(unread);
-    }
-
-}
-
-// DTO for REAL-TIME notifications
-class NotificationDTO {
-    private int id;
-    private String title;
-    private String message;
-    private String type;
-    private LocalDateTime createdAt;
-    private boolean isRead;
-
-    public NotificationDTO(Notification notification) {
-        this.id = notification.getId();
-        this.title = notification.getTitle();
-        this.message = notification.getContent();
-        this.type = notification.getType().toString();
-        this.createdAt = notification.getSentAt();
-        this.isRead = notification.isRead();
+        int updated = notificationRepo.markAllReadAndReceivedByUserId(userId, LocalDateTime.now());
+        System.out.println("Marked " + updated + " notifications as read for user: " + userId);
+        unreadCounter.adjust(userId, -updated);
     }
 
-    // Getters and setters
-    public int getId() {
-        return id;
-    }
-
-    public void setId(int id) {
-        this.id = id;
-    }
-
-    public String getTitle() {
-        return title;
-    }
-
-    public void setTitle(String title) {
-        this.title = title;
-    }
-
-    public String getMessage() {
-        return message;
-    }
-
-    public void setMessage(String message) {
-        this.message = message;
-    }
-
-    public String getType() {
-        return type;
-    }
-
-    public void setType(String type) {
-        this.type = type;
-    }
-
-    public LocalDateTime getCreatedAt() {
-        return createdAt;
-    }
+    @Override
+    public List<Integer> markAsRead(List<Integer> notificationIds, int userId) {
+        if (notificationIds.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> unread = notificationRepo.findUnreadIdsOwnedBy(notificationIds, userId);
+        if (unread.isEmpty()) {
+            return unread;
+        }
+        notificationRepo.markReadByIds(unread, LocalDateTime.now());
+        unreadCounter.adjust(userId, -unread.size());
 
-    public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
+        outbox.enqueue("/topic/notifications/" + userId + "/read", unread);
+        return unread;
     }
 
-    public boolean isRead() {
-        return isRead;
-    }
+    @Override
+    public List<Integer> deleteNotifications(List<Integer> notificationIds, int userId) {
+        if (notificationIds.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> owned = new ArrayList<>();
+        int unread = 0;
+        for (Object[] row : notificationRepo.findReadStateOwnedBy(notificationIds, userId)) {
+            owned.add((Integer) row[0]);
+            if (!(Boolean) row[1]) {
+                unread++;
+            }
+        }
+        if (owned.isEmpty()) {
+            return owned;
+        }
+        notificationRepo.deleteByIds(owned);
+        unreadCounter.adjust(userId, -unread);
 
-    public void setRead(boolean read) {
-        isRead = read;
+        outbox.enqueue("/topic/notifications/" + userId + "/deleted", owned);
+        return owned;
     }
 
-}
\ No newline at end of file
+}
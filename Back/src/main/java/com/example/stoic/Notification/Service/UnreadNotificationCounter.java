@@ -0,0 +1,142 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Repo.NotificationRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unread notification count per user, kept in memory so the count endpoint
+ * does not run a COUNT query on every poll.
+ *
+ * A user's counter is seeded from the DB the first time it is read. After
+ * that, changes are applied as deltas once the writing transaction commits,
+ * and every change is pushed on the user's /topic/notifications/{userId}
+ * channel as a {@value #UNREAD_COUNT} payload, next to the notifications. Deltas
+ * for users that were never read are dropped, because their seed will see
+ * the committed rows. A background pass re-counts seeded users to correct
+ * drift, for example from a seed racing a commit.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    /** "type" of the count payload, so clients can tell it from a notification. */
+    public static final String UNREAD_COUNT = "UNREAD_COUNT";
+
+    private final NotificationRepo notificationRepo;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int reconcileBatch;
+
+    private final Map<Integer, AtomicInteger> counts = new ConcurrentHashMap<>();
+    private final Counter corrections;
+
+    public UnreadNotificationCounter(NotificationRepo notificationRepo, SimpMessagingTemplate messagingTemplate,
+            @Value("${stoic.notifications.unread-counter.reconcile-batch:1000}") int reconcileBatch,
+            MeterRegistry meterRegistry) {
+        this.notificationRepo = notificationRepo;
+        this.messagingTemplate = messagingTemplate;
+        this.reconcileBatch = reconcileBatch;
+        this.corrections = Counter.builder("notifications.unread.reconcile.corrections")
+                .description("Cached unread counters found out of step with the DB")
+                .register(meterRegistry);
+        Gauge.builder("notifications.unread.cached_users", counts, Map::size).register(meterRegistry);
+    }
+
+    public int get(int userId) {
+        AtomicInteger count = counts.get(userId);
+        if (count == null) {
+            int seeded = notificationRepo.countUnreadNotificationsByUserId(userId);
+            count = counts.computeIfAbsent(userId, k -> new AtomicInteger(seeded));
+        }
+        return count.get();
+    }
+
+    /**
+     * Apply a change in a user's unread count once the current transaction
+     * commits (or right away outside a transaction).
+     */
+    public void adjust(int userId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            AtomicInteger count = counts.get(userId);
+            if (count != null) {
+                push(userId, count.updateAndGet(c -> Math.max(0, c + delta)));
+            }
+        });
+    }
+
+    public void increment(List<Integer> userIds) {
+        Map<Integer, Integer> deltas = new HashMap<>();
+        for (Integer userId : userIds) {
+            deltas.merge(userId, 1, Integer::sum);
+        }
+        deltas.forEach(this::adjust);
+    }
+
+    /**
+     * Forget every cached count, e.g. after a write that touched all users;
+     * each count is reseeded from the DB the next time it is read.
+     */
+    public void invalidateAll() {
+        counts.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${stoic.notifications.unread-counter.reconcile-ms:300000}",
+            initialDelayString = "${stoic.notifications.unread-counter.reconcile-ms:300000}")
+    public void reconcile() {
+        List<Integer> users = new ArrayList<>(counts.keySet());
+        for (int from = 0; from < users.size(); from += reconcileBatch) {
+            List<Integer> batch = users.subList(from, Math.min(from + reconcileBatch, users.size()));
+            Map<Integer, Integer> actual = new HashMap<>();
+            for (Object[] row : notificationRepo.countUnreadByUserIds(batch)) {
+                actual.put((Integer) row[0], ((Long) row[1]).intValue());
+            }
+            for (Integer userId : batch) {
+                AtomicInteger count = counts.get(userId);
+                int expected = actual.getOrDefault(userId, 0);
+                if (count != null && count.getAndSet(expected) != expected) {
+                    corrections.increment();
+                    push(userId, expected);
+                }
+            }
+        }
+    }
+
+    private void push(int userId, int count) {
+        try {
+            messagingTemplate.convertAndSend("/topic/notifications/" + userId,
+                    Map.of("type", UNREAD_COUNT, "unreadCount", count));
+        } catch (Exception e) {
+            System.err.println("❌ Error sending unread count: " + e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
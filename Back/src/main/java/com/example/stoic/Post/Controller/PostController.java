@@ -2,6 +2,7 @@ package com.example.stoic.Post.Controller;
 
 import com.example.stoic.Post.Model.Post;
 import com.example.stoic.Post.Service.PostServiceImpl;
+import com.example.stoic.Post.Service.PostSummary;
 import com.example.stoic.Room.Model.Room;
 import com.example.stoic.Room.Repo.RoomRepo;
 import com.example.stoic.Room.Service.RoomService;
@@ -19,6 +20,7 @@ import jakarta.servlet.http.HttpSession;
 import com.example.stoic.User.Model.User;
 import com.example.stoic.User.Model.UserRole;
 import com.example.stoic.User.Service.UserServiceImpl;
+import com.example.stoic.common.CursorPage;
 
 @CrossOrigin(origins = {
         " ${UserIphttp}",
@@ -211,4 +213,20 @@ public class PostController {
                 ? ResponseEntity.noContent().build()
                 : ResponseEntity.ok(posts);
     }
-}
\ No newline at end of file
+
+    // Paginated feed: ?limit=N[&before={date,id}]
+    @GetMapping(value = "/room/{roomId}", params = "limit")
+    public ResponseEntity<CursorPage<PostSummary>> getFeedPage(
+            @PathVariable int roomId,
+            @RequestParam(required = false) String before,
+            @RequestParam int limit,
+            HttpSession session) {
+        User viewer = (User) session.getAttribute("user");
+        try {
+            return ResponseEntity.ok(postService.getFeedPage(roomId, before, limit,
+                    viewer == null ? null : viewer.getUserId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -15,7 +15,10 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
-@Table(name = "post")
+@Table(name = "post", indexes = {
+        // keyset feed: a room's posts, newest first
+        @Index(name = "idx_post_room_feed", columnList = "room_id, date, id")
+})
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Post {
 
@@ -41,10 +44,16 @@ public class Post {
     private List<Comment> comments = new ArrayList<>();
 
     @ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JoinTable(name = "post_likes", joinColumns = @JoinColumn(name = "post_id"), inverseJoinColumns = @JoinColumn(name = "user_id"))
+    @JoinTable(name = "post_likes", joinColumns = @JoinColumn(name = "post_id"), inverseJoinColumns = @JoinColumn(name = "user_id"),
+            uniqueConstraints = @UniqueConstraint(columnNames = { "post_id", "user_id" }))
     @OnDelete(action = OnDeleteAction.CASCADE)
     private List<User> likes = new ArrayList<>();
 
+    // size of likes, kept in step by PostRepo's like toggle so nobody has to load them to count
+    // read-only here: saving a loaded entity must not write back a stale count
+    @Column(name = "like_count", columnDefinition = "int not null default 0", insertable = false, updatable = false)
+    private int likeCount;
+
     @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id", nullable = false)
@@ -73,6 +82,9 @@ public class Post {
     public List<User> getLikes() { return likes; }
     public void setLikes(List<User> likes) { this.likes = likes; }
 
+    public int getLikeCount() { return likeCount; }
+    public void setLikeCount(int likeCount) { this.likeCount = likeCount; }
+
     public Room getRoom() { return room; }
     public void setRoom(Room room) { this.room = room; }
 
@@ -1,9 +1,13 @@
 package com.example.stoic.Post.Repo;
 
 import com.example.stoic.Post.Model.Post;
+import com.example.stoic.Post.Service.PostSummary;
 
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,15 +25,60 @@ public interface PostRepo extends JpaRepository<Post, Integer>, JpaSpecification
 
     Post findByid(int postId);
 
+    // One feed page, newest first, strictly before the (date, id) cursor.
+    // Author is joined and comments are counted in the same statement; likes are never loaded.
+    @Query("SELECT new com.example.stoic.Post.Service.PostSummary("
+            + "p.id, p.title, SUBSTRING(p.content, 1, " + PostSummary.EXCERPT_LENGTH + "), a.userId, a.username, "
+            + "p.date, p.likeCount, (SELECT COUNT(c) FROM Comment c WHERE c.post = p)) "
+            + "FROM Post p JOIN p.author a "
+            + "WHERE p.room.roomId = :roomId "
+            + "AND (p.date < :date OR (p.date = :date AND p.id < :id)) "
+            + "ORDER BY p.date DESC, p.id DESC")
+    List<PostSummary> findFeedPage(@Param("roomId") int roomId, @Param("date") LocalDateTime date,
+            @Param("id") int id, Limit limit);
+
+    // which of these posts the user has liked
+    @Query(
+      value = "SELECT post_id FROM post_likes WHERE user_id = :userId AND post_id IN (:postIds)",
+      nativeQuery = true
+    )
+    List<Integer> findLikedPostIds(@Param("userId") int userId, @Param("postIds") Collection<Integer> postIds);
+
     @Modifying
     @Transactional
     @Query(
       value = "DELETE FROM post_likes WHERE post_id = :postId AND user_id = :userId",
       nativeQuery = true
     )
-    void deleteLike(
+    int deleteLike(
       @Param("postId") int postId,
       @Param("userId") int userId
     );
 
+    @Query(
+      value = "SELECT EXISTS(SELECT 1 FROM post_likes WHERE post_id = :postId AND user_id = :userId)",
+      nativeQuery = true
+    )
+    long likeExists(@Param("postId") int postId, @Param("userId") int userId);
+
+    // 0 if the like is already there (someone raced us to it)
+    @Modifying
+    @Transactional
+    @Query(
+      value = "INSERT IGNORE INTO post_likes (post_id, user_id) VALUES (:postId, :userId)",
+      nativeQuery = true
+    )
+    int insertLike(@Param("postId") int postId, @Param("userId") int userId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE post SET like_count = like_count + :delta WHERE id = :postId", nativeQuery = true)
+    int adjustLikeCount(@Param("postId") int postId, @Param("delta") int delta);
+
+    @Query(value = "SELECT like_count FROM post WHERE id = :postId", nativeQuery = true)
+    Integer findLikeCount(@Param("postId") int postId);
+
+    @Query(value = "SELECT user_id FROM post WHERE id = :postId", nativeQuery = true)
+    Integer findAuthorId(@Param("postId") int postId);
+
 }
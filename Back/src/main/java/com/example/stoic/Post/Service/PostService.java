@@ -1,6 +1,8 @@
 package com.example.stoic.Post.Service;
 
 import com.example.stoic.Post.Model.Post;
+import com.example.stoic.common.CursorPage;
+import com.example.stoic.common.LikeToggle;
 
 import java.util.List;
 
@@ -10,6 +12,9 @@ public interface PostService {
 
     List<Post> findByRoomId(int roomId);
 
+    // Keyset page of a room's feed; viewerId (nullable) fills in likedByMe
+    CursorPage<PostSummary> getFeedPage(int roomId, String before, int limit, Integer viewerId);
+
     Post findPostById(int id);
 
     Post savePost(Post post);
@@ -17,4 +22,7 @@ public interface PostService {
     void deletePostById(int id);
 
     Post updatePost(Post post);
+
+    // Like or unlike; null if the post does not exist
+    LikeToggle toggleLike(int postId, int userId);
 }
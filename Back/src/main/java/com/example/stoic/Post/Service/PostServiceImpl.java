@@ -2,18 +2,33 @@ package com.example.stoic.Post.Service;
 
 import com.example.stoic.Post.Model.Post;
 import com.example.stoic.Post.Repo.PostRepo;
+import com.example.stoic.common.CursorPage;
+import com.example.stoic.common.LikeCounterBuffer;
+import com.example.stoic.common.LikeToggle;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class PostServiceImpl implements PostService {
 
+    private static final int MAX_FEED_PAGE = 50;
+    // first-page cursor; MySQL DATETIME cannot hold LocalDateTime.MAX
+    private static final LocalDateTime FEED_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final PostRepo postRepo;
+    private final LikeCounterBuffer likeCounters;
 
-    public PostServiceImpl(PostRepo postRepo) {
+    public PostServiceImpl(PostRepo postRepo, LikeCounterBuffer likeCounters) {
         this.postRepo = postRepo;
+        this.likeCounters = likeCounters;
     }
 
     @Override
@@ -33,6 +48,46 @@ public class PostServiceImpl implements PostService {
         return post;
     }
 
+    /**
+     * Two queries whatever the page size: the page itself (author and
+     * comment count included) and the viewer's likes among its posts.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummary> getFeedPage(int roomId, String before, int limit, Integer viewerId) {
+        int size = Math.max(1, Math.min(limit, MAX_FEED_PAGE));
+        LocalDateTime date = FEED_START;
+        int id = Integer.MAX_VALUE;
+        if (before != null && !before.isBlank()) {
+            int comma = before.lastIndexOf(',');
+            try {
+                date = LocalDateTime.parse(before.substring(0, comma));
+                id = Integer.parseInt(before.substring(comma + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + before, e);
+            }
+        }
+        List<PostSummary> page = postRepo.findFeedPage(roomId, date, id, Limit.of(size));
+        if (page.isEmpty()) {
+            return new CursorPage<>(page, null);
+        }
+
+        List<Integer> ids = new ArrayList<>(page.size());
+        for (PostSummary post : page) {
+            ids.add(post.getId());
+        }
+        Set<Integer> liked = viewerId == null ? Set.of() : new HashSet<>(postRepo.findLikedPostIds(viewerId, ids));
+        for (PostSummary post : page) {
+            post.setLikedByMe(liked.contains(post.getId()));
+            post.setLikeCount(post.getLikeCount() + likeCounters.pending(LikeCounterBuffer.Target.POST, post.getId()));
+        }
+
+        PostSummary last = page.get(page.size() - 1);
+        // a short page means there is nothing older left
+        String next = page.size() == size ? last.getDate() + "," + last.getId() : null;
+        return new CursorPage<>(page, next);
+    }
+
     @Override
     public Post savePost(Post post ) {
         return postRepo.save(post);
@@ -52,4 +107,47 @@ public class PostServiceImpl implements PostService {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * An indexed lookup on post_likes, one insert or delete, and an atomic
+     * like_count update; the likes collection is never loaded. Liking bumps
+     * the counter before inserting so the post row is locked before the
+     * insert's foreign key check takes a shared lock on it (two likers each
+     * holding that shared lock and waiting to upgrade would deadlock).
+     */
+    @Override
+    @Transactional
+    public LikeToggle toggleLike(int postId, int userId) {
+        if (likeCounters.isEnabled()) {
+            return toggleBuffered(postId, userId);
+        }
+        if (postRepo.likeExists(postId, userId) == 0) {
+            if (postRepo.adjustLikeCount(postId, 1) == 0) {
+                return null;
+            }
+            if (postRepo.insertLike(postId, userId) == 0) {
+                postRepo.adjustLikeCount(postId, -1); // a concurrent request liked it first
+            }
+            return new LikeToggle(true, postRepo.findLikeCount(postId));
+        }
+        if (postRepo.deleteLike(postId, userId) == 1) {
+            postRepo.adjustLikeCount(postId, -1);
+        }
+        Integer count = postRepo.findLikeCount(postId);
+        return count == null ? null : new LikeToggle(false, count);
+    }
+
+    // Hot-counter mode: the like row is written here, the count change goes to the buffer on commit
+    private LikeToggle toggleBuffered(int postId, int userId) {
+        Integer stored = postRepo.findLikeCount(postId);
+        if (stored == null) {
+            return null;
+        }
+        boolean liked = postRepo.likeExists(postId, userId) == 0;
+        int delta = liked ? postRepo.insertLike(postId, userId) : -postRepo.deleteLike(postId, userId);
+        long count = stored + likeCounters.pending(LikeCounterBuffer.Target.POST, postId) + delta;
+        if (delta != 0) {
+            likeCounters.addAfterCommit(LikeCounterBuffer.Target.POST, postId, delta);
+        }
+        return new LikeToggle(liked, (int) count);
+    }
+}
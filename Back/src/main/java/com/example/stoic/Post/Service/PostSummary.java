@@ -0,0 +1,78 @@
+package com.example.stoic.Post.Service;
+
+import java.time.LocalDateTime;
+
+// One row of a room's post feed: what the list shows, without the post's likes or comments
+public class PostSummary {
+
+    public static final int EXCERPT_LENGTH = 200;
+
+    private int id;
+    private String title;
+    private String excerpt;
+    private int authorId;
+    private String authorName;
+    private LocalDateTime date;
+    private long likeCount;
+    private long commentCount;
+    private boolean likedByMe;
+
+    /**
+     * Used by the feed projection query in PostRepo.
+     */
+    public PostSummary(int id, String title, String excerpt, int authorId, String authorName, LocalDateTime date,
+            int likeCount, long commentCount) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.authorId = authorId;
+        this.authorName = authorName;
+        this.date = date;
+        this.likeCount = likeCount;
+        this.commentCount = commentCount;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public int getAuthorId() {
+        return authorId;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public boolean isLikedByMe() {
+        return likedByMe;
+    }
+
+    public void setLikedByMe(boolean likedByMe) {
+        this.likedByMe = likedByMe;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.stoic.Reminder.Controller;
+
+import com.example.stoic.Reminder.Model.Reminder;
+import com.example.stoic.Reminder.Model.ReminderKind;
+import com.example.stoic.Reminder.Service.ReminderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin(origins = {
+        "${UserIphttp}",
+        "${UserIPexp}"
+}, allowCredentials = "true")
+@RestController
+@RequestMapping("/api/reminders")
+public class ReminderController {
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<List<Reminder>> getReminders(@PathVariable int userId) {
+        return ResponseEntity.ok(reminderService.getReminders(userId));
+    }
+
+    // Body: {"time": "20:30", "zone": "Europe/Paris"}
+    @PutMapping("/{userId}/{kind}")
+    public ResponseEntity<?> setReminder(@PathVariable int userId, @PathVariable ReminderKind kind,
+            @RequestBody ReminderRequest request) {
+        try {
+            Reminder reminder = reminderService.setReminder(userId, kind, LocalTime.parse(request.getTime()),
+                    ZoneId.of(request.getZone()));
+            return ResponseEntity.ok(reminder);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid reminder: " + e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{userId}/{kind}")
+    public ResponseEntity<Map<String, String>> deleteReminder(@PathVariable int userId,
+            @PathVariable ReminderKind kind) {
+        if (reminderService.deleteReminder(userId, kind)) {
+            return ResponseEntity.ok(Map.of("message", "Reminder deleted"));
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
+
+class ReminderRequest {
+    private String time;
+    private String zone;
+
+    public String getTime() {
+        return time;
+    }
+
+    public void setTime(String time) {
+        this.time = time;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.stoic.Reminder.Model;
+
+import com.example.stoic.User.Model.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalTime;
+
+/**
+ * A daily reminder at a local time in the user's zone. next_fire_at is the
+ * next firing as epoch millis; the scheduler advances it when the reminder
+ * fires, so it is also the claim token between nodes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reminder", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "kind" }), indexes = {
+        // overdue sweep: reminders no node fired on time
+        @Index(name = "idx_reminder_next_fire", columnList = "next_fire_at")
+})
+public class Reminder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private int id;
+
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    // only here for the foreign key, so reminders go with their user
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 32)
+    private ReminderKind kind;
+
+    @Column(name = "local_time", nullable = false)
+    private LocalTime localTime;
+
+    @Column(name = "zone_id", nullable = false, length = 64)
+    private String zoneId;
+
+    @Column(name = "next_fire_at", nullable = false)
+    private long nextFireAt;
+}
@@ -0,0 +1,22 @@
+package com.example.stoic.Reminder.Model;
+
+public enum ReminderKind {
+    DAILY_CHECK_IN("Daily check-in", "Take a moment to reflect on your day."),
+    MOOD_LOG("Mood log", "How are you feeling? Log your mood.");
+
+    private final String title;
+    private final String message;
+
+    ReminderKind(String title, String message) {
+        this.title = title;
+        this.message = message;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
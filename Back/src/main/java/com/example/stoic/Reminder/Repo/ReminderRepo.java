@@ -0,0 +1,18 @@
+package com.example.stoic.Reminder.Repo;
+
+import com.example.stoic.Reminder.Model.Reminder;
+import com.example.stoic.Reminder.Model.ReminderKind;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReminderRepo extends JpaRepository<Reminder, Integer> {
+
+    List<Reminder> findByUserId(int userId);
+
+    Optional<Reminder> findByUserIdAndKind(int userId, ReminderKind kind);
+}
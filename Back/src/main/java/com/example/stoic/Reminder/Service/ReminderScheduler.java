@@ -0,0 +1,397 @@
+package com.example.stoic.Reminder.Service;
+
+import com.example.stoic.Notification.Model.Notification;
+import com.example.stoic.Notification.Model.NotificationType;
+import com.example.stoic.Notification.Service.NotificationDTO;
+import com.example.stoic.Notification.Service.NotificationPreferences;
+import com.example.stoic.Notification.Service.NotificationService;
+import com.example.stoic.Reminder.Model.ReminderKind;
+import com.example.stoic.common.StompPayloadEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fires reminders from an in-memory {@link TimingWheel} holding every
+ * reminder's next firing. The reminder table is the source of truth: the
+ * wheel is rebuilt from it at startup, and a periodic sweep picks up rows no
+ * node fired on time (crashed node, failed batch).
+ *
+ * Each tick takes the due timers and claims them in batches: the rows are
+ * locked with SELECT ... FOR UPDATE and only those still at the firing that
+ * came due are ours (so with several nodes each reminder fires once), then
+ * their next_fire_at is moved on. It writes the notifications with one batched insert per kind and pushes
+ * them after commit. If a batch fails, its reminders are fired one per
+ * transaction, and a reminder that still fails skips this firing rather than
+ * coming back with every sweep.
+ */
+@Component
+public class ReminderScheduler {
+
+    private static final String LOAD_PAGE_SQL = "SELECT id, next_fire_at FROM reminder "
+            + "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String OVERDUE_SQL = "SELECT id, next_fire_at FROM reminder "
+            + "WHERE next_fire_at < ? ORDER BY next_fire_at LIMIT ?";
+    private static final String CLAIM_SQL = "UPDATE reminder SET next_fire_at = ? "
+            + "WHERE id = ? AND next_fire_at = ?";
+    private static final String LOCK_SQL = "SELECT id, next_fire_at FROM reminder WHERE id IN (%s) FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationService notificationService;
+    private final NotificationPreferences preferences;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final StompPayloadEncoder payloadEncoder;
+    private final MeterRegistry meterRegistry;
+    private final long graceMillis;
+    private final long sweepMillis;
+    private final int batchSize;
+
+    private final TimingWheel wheel; // guarded by itself
+
+    private final Timer lag;
+    private final Counter missed;
+    private final Counter failed;
+
+    public ReminderScheduler(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            NotificationService notificationService, NotificationPreferences preferences,
+            SimpMessagingTemplate messagingTemplate, StompPayloadEncoder payloadEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${stoic.reminders.tick-ms:1000}") long tickMillis,
+            @Value("${stoic.reminders.grace-ms:900000}") long graceMillis,
+            @Value("${stoic.reminders.sweep-ms:60000}") long sweepMillis,
+            @Value("${stoic.reminders.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationService = notificationService;
+        this.preferences = preferences;
+        this.messagingTemplate = messagingTemplate;
+        this.payloadEncoder = payloadEncoder;
+        this.meterRegistry = meterRegistry;
+        this.graceMillis = graceMillis;
+        this.sweepMillis = sweepMillis;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel(tickMillis, System.currentTimeMillis());
+
+        this.lag = Timer.builder("reminders.scheduler.lag")
+                .description("How late reminders fired relative to their scheduled time")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.missed = Counter.builder("reminders.missed")
+                .description("Reminders skipped because they came due more than the grace period ago")
+                .register(meterRegistry);
+        this.failed = Counter.builder("reminders.failed")
+                .description("Reminders skipped because their notification could not be written")
+                .register(meterRegistry);
+        Gauge.builder("reminders.pending", this, ReminderScheduler::pending)
+                .description("Reminders waiting in this node's timing wheel")
+                .register(meterRegistry);
+    }
+
+    public void schedule(int reminderId, long fireAtMillis) {
+        synchronized (wheel) {
+            wheel.schedule(reminderId, fireAtMillis);
+        }
+    }
+
+    public void cancel(int reminderId) {
+        synchronized (wheel) {
+            wheel.cancel(reminderId);
+        }
+    }
+
+    public int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /** Next time {@code localTime} comes round in {@code zone}, strictly after {@code afterMillis}. */
+    public static long nextOccurrence(LocalTime localTime, ZoneId zone, long afterMillis) {
+        LocalDate day = Instant.ofEpochMilli(afterMillis).atZone(zone).toLocalDate();
+        while (true) {
+            // a time inside a DST gap moves forward by the gap
+            long at = ZonedDateTime.of(day, localTime, zone).toInstant().toEpochMilli();
+            if (at > afterMillis) {
+                return at;
+            }
+            day = day.plusDays(1);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        try {
+            int loaded = 0;
+            int lastId = 0;
+            while (true) {
+                List<long[]> page = jdbcTemplate.query(LOAD_PAGE_SQL,
+                        (rs, n) -> new long[] { rs.getInt("id"), rs.getLong("next_fire_at") }, lastId, batchSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                synchronized (wheel) {
+                    for (long[] row : page) {
+                        wheel.schedule(row[0], row[1]);
+                    }
+                }
+                loaded += page.size();
+                lastId = (int) page.get(page.size() - 1)[0];
+            }
+            System.out.println("⏰ Loaded " + loaded + " reminders into the scheduler");
+        } catch (Exception e) {
+            // the overdue sweep keeps retrying the rows that come due meanwhile
+            System.err.println("❌ Error loading reminders: " + e.getMessage());
+        }
+    }
+
+    /** Reminders due more than one sweep ago were not fired by any node; fire them now. */
+    @Scheduled(fixedDelayString = "${stoic.reminders.sweep-ms:60000}",
+            initialDelayString = "${stoic.reminders.sweep-ms:60000}")
+    public void sweepOverdue() {
+        try {
+            List<long[]> overdue = jdbcTemplate.query(OVERDUE_SQL,
+                    (rs, n) -> new long[] { rs.getInt("id"), rs.getLong("next_fire_at") },
+                    System.currentTimeMillis() - sweepMillis, batchSize);
+            synchronized (wheel) {
+                for (long[] row : overdue) {
+                    wheel.schedule(row[0], row[1]);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error sweeping overdue reminders: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${stoic.reminders.tick-ms:1000}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        List<TimingWheel.Expired> due;
+        synchronized (wheel) {
+            due = wheel.advance(now);
+        }
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<TimingWheel.Expired> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                fire(batch, now);
+            } catch (Exception e) {
+                // rolled back, so next_fire_at is unchanged and the sweep retries these
+                System.err.println("❌ Error firing " + batch.size() + " reminders: " + e.getMessage());
+            }
+        }
+    }
+
+    private void fire(List<TimingWheel.Expired> batch, long now) {
+        Map<Integer, Row> rows = load(batch);
+
+        List<Claim> claims = new ArrayList<>(batch.size());
+        for (TimingWheel.Expired expired : batch) {
+            Row row = rows.get((int) expired.id());
+            if (row == null) {
+                continue; // deleted
+            }
+            if (row.nextFireAt() != expired.deadlineMillis()) {
+                // moved by the user or already fired by another node
+                schedule(row.id(), row.nextFireAt());
+                continue;
+            }
+            long next = nextOccurrence(row.localTime(), row.zone(), Math.max(now, row.nextFireAt()));
+            claims.add(new Claim(row, next));
+        }
+        if (claims.isEmpty()) {
+            return;
+        }
+
+        Map<ReminderKind, Fired> fired;
+        try {
+            fired = transactionTemplate.execute(status -> write(claims, now));
+        } catch (Exception e) {
+            System.err.println("❌ Error firing " + claims.size() + " reminders, retrying one by one: "
+                    + e.getMessage());
+            fired = writeEach(claims, now);
+        }
+
+        synchronized (wheel) {
+            for (Claim claim : claims) {
+                wheel.schedule(claim.row().id(), claim.next());
+            }
+        }
+        fired.forEach(this::push);
+    }
+
+    private Map<ReminderKind, Fired> write(List<Claim> claims, long now) {
+        List<Claim> owned = lock(claims);
+        if (!owned.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(owned.size());
+            for (Claim claim : owned) {
+                args.add(new Object[] { claim.next(), claim.row().id(), claim.row().nextFireAt() });
+            }
+            // the rows are locked, so these cannot miss; the counts are not needed
+            jdbcTemplate.batchUpdate(CLAIM_SQL, args);
+        }
+
+        Map<ReminderKind, List<Integer>> recipients = new EnumMap<>(ReminderKind.class);
+        for (Claim claim : owned) {
+            Row row = claim.row();
+            long late = now - row.nextFireAt();
+            if (late > graceMillis) {
+                // e.g. after downtime: a check-in reminder hours late is noise
+                missed.increment();
+                continue;
+            }
+            lag.record(Duration.ofMillis(Math.max(late, 0)));
+            recipients.computeIfAbsent(row.kind(), k -> new ArrayList<>()).add(row.userId());
+        }
+
+        Map<ReminderKind, Fired> fired = new EnumMap<>(ReminderKind.class);
+        recipients.forEach((kind, userIds) -> {
+            preferences.load(userIds);
+            List<Integer> allowed = new ArrayList<>(userIds.size());
+            for (Integer userId : userIds) {
+                if (preferences.allows(userId, NotificationType.REMINDER, null)) {
+                    allowed.add(userId);
+                }
+            }
+            List<Integer> ids = notificationService.createNotifications(allowed, kind.getTitle(),
+                    kind.getMessage(), NotificationType.REMINDER);
+            meterRegistry.counter("reminders.fired", "kind", kind.name()).increment(allowed.size());
+            fired.put(kind, new Fired(allowed, ids));
+        });
+        return fired;
+    }
+
+    // One bad row fails the whole batch; fire each on its own so only that one is lost
+    private Map<ReminderKind, Fired> writeEach(List<Claim> claims, long now) {
+        Map<ReminderKind, Fired> fired = new EnumMap<>(ReminderKind.class);
+        for (Claim claim : claims) {
+            try {
+                transactionTemplate.execute(status -> write(List.of(claim), now))
+                        .forEach((kind, one) -> fired.merge(kind, one, Fired::plus));
+            } catch (Exception e) {
+                System.err.println("❌ Error firing reminder " + claim.row().id() + ": " + e.getMessage());
+                failed.increment();
+                skip(claim);
+            }
+        }
+        return fired;
+    }
+
+    // Lock the claimed rows until commit and keep those still at the firing we
+    // read; another node has already fired the rest. Unlike batchUpdate counts,
+    // which rewriteBatchedStatements reports as SUCCESS_NO_INFO, this is per row
+    private List<Claim> lock(List<Claim> claims) {
+        Object[] ids = new Object[claims.size()];
+        for (int i = 0; i < claims.size(); i++) {
+            ids[i] = claims.get(i).row().id();
+        }
+        Map<Integer, Long> current = new HashMap<>(claims.size() * 2);
+        jdbcTemplate.query(String.format(LOCK_SQL, String.join(",", Collections.nCopies(claims.size(), "?"))),
+                rs -> {
+                    current.put(rs.getInt("id"), rs.getLong("next_fire_at"));
+                }, ids);
+        List<Claim> owned = new ArrayList<>(claims.size());
+        for (Claim claim : claims) {
+            Long nextFireAt = current.get(claim.row().id());
+            if (nextFireAt != null && nextFireAt == claim.row().nextFireAt()) {
+                owned.add(claim);
+            }
+        }
+        return owned;
+    }
+
+    // Move past this firing without a notification; if even that fails, the sweep retries it
+    private void skip(Claim claim) {
+        try {
+            jdbcTemplate.update(CLAIM_SQL, claim.next(), claim.row().id(), claim.row().nextFireAt());
+        } catch (Exception e) {
+            System.err.println("❌ Error skipping reminder " + claim.row().id() + ": " + e.getMessage());
+        }
+    }
+
+    // Every recipient of a kind gets the same JSON apart from the id
+    private void push(ReminderKind kind, Fired fired) {
+        if (fired.userIds().isEmpty()) {
+            return;
+        }
+        Notification notification = new Notification();
+        notification.setTitle(kind.getTitle());
+        notification.setContent(kind.getMessage());
+        notification.setType(NotificationType.REMINDER);
+        notification.setSentAt(LocalDateTime.now());
+        StompPayloadEncoder.IdTemplate payload = payloadEncoder.encodeWithId(new NotificationDTO(notification));
+        for (int i = 0; i < fired.userIds().size(); i++) {
+            messagingTemplate.send("/topic/notifications/" + fired.userIds().get(i),
+                    payload.withId(fired.notificationIds().get(i)));
+        }
+    }
+
+    private Map<Integer, Row> load(List<TimingWheel.Expired> batch) {
+        String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+        Object[] ids = new Object[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            ids[i] = (int) batch.get(i).id();
+        }
+        Map<Integer, Row> rows = new HashMap<>(batch.size() * 2);
+        List<Integer> orphans = new ArrayList<>();
+        jdbcTemplate.query("SELECT r.id, r.user_id, r.kind, r.local_time, r.zone_id, r.next_fire_at, "
+                + "u.user_id AS owner FROM reminder r LEFT JOIN users u ON u.user_id = r.user_id "
+                + "WHERE r.id IN (" + placeholders + ")", rs -> {
+                    if (rs.getObject("owner") == null) {
+                        orphans.add(rs.getInt("id"));
+                        return;
+                    }
+                    Row row = new Row(rs.getInt("id"), rs.getInt("user_id"),
+                            ReminderKind.valueOf(rs.getString("kind")),
+                            rs.getObject("local_time", LocalTime.class), ZoneId.of(rs.getString("zone_id")),
+                            rs.getLong("next_fire_at"));
+                    rows.put(row.id(), row);
+                }, ids);
+        if (!orphans.isEmpty()) {
+            // left behind by a user deleted before the foreign key existed
+            jdbcTemplate.update("DELETE FROM reminder WHERE id IN ("
+                    + String.join(",", Collections.nCopies(orphans.size(), "?")) + ")", orphans.toArray());
+        }
+        return rows;
+    }
+
+    private record Row(int id, int userId, ReminderKind kind, LocalTime localTime, ZoneId zone, long nextFireAt) {
+    }
+
+    private record Claim(Row row, long next) {
+    }
+
+    private record Fired(List<Integer> userIds, List<Integer> notificationIds) {
+
+        Fired plus(Fired other) {
+            List<Integer> users = new ArrayList<>(userIds);
+            users.addAll(other.userIds);
+            List<Integer> ids = new ArrayList<>(notificationIds);
+            ids.addAll(other.notificationIds);
+            return new Fired(users, ids);
+        }
+    }
+}
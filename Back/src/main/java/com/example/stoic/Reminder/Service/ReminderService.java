@@ -0,0 +1,18 @@
+package com.example.stoic.Reminder.Service;
+
+import com.example.stoic.Reminder.Model.Reminder;
+import com.example.stoic.Reminder.Model.ReminderKind;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+public interface ReminderService {
+
+    List<Reminder> getReminders(int userId);
+
+    // Create or move the user's reminder of this kind
+    Reminder setReminder(int userId, ReminderKind kind, LocalTime localTime, ZoneId zone);
+
+    boolean deleteReminder(int userId, ReminderKind kind);
+}
@@ -0,0 +1,73 @@
+package com.example.stoic.Reminder.Service;
+
+import com.example.stoic.Reminder.Model.Reminder;
+import com.example.stoic.Reminder.Model.ReminderKind;
+import com.example.stoic.Reminder.Repo.ReminderRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Transactional
+public class ReminderServiceImpl implements ReminderService {
+
+    @Autowired
+    private ReminderRepo reminderRepo;
+
+    @Autowired
+    private ReminderScheduler scheduler;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Reminder> getReminders(int userId) {
+        return reminderRepo.findByUserId(userId);
+    }
+
+    @Override
+    public Reminder setReminder(int userId, ReminderKind kind, LocalTime localTime, ZoneId zone) {
+        Reminder reminder = reminderRepo.findByUserIdAndKind(userId, kind).orElseGet(Reminder::new);
+        reminder.setUserId(userId);
+        reminder.setKind(kind);
+        reminder.setLocalTime(localTime.withNano(0));
+        reminder.setZoneId(zone.getId());
+        reminder.setNextFireAt(ReminderScheduler.nextOccurrence(reminder.getLocalTime(), zone,
+                System.currentTimeMillis()));
+        Reminder saved = reminderRepo.save(reminder);
+
+        // the wheel only learns about committed schedules
+        afterCommit(() -> scheduler.schedule(saved.getId(), saved.getNextFireAt()));
+        return saved;
+    }
+
+    @Override
+    public boolean deleteReminder(int userId, ReminderKind kind) {
+        Optional<Reminder> reminder = reminderRepo.findByUserIdAndKind(userId, kind);
+        if (reminder.isEmpty()) {
+            return false;
+        }
+        int id = reminder.get().getId();
+        reminderRepo.delete(reminder.get());
+        afterCommit(() -> scheduler.cancel(id));
+        return true;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.stoic.Reminder.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by id: O(1) schedule and cancel, and
+ * {@link #advance} costs one slot per elapsed tick plus the timers it moves.
+ *
+ * Level 0 has one slot per tick, and each level above covers a whole turn of
+ * the one below it. With 1s ticks and four levels of 256 slots, that is
+ * 256s, 18h, 194 days and 136 years. When a lower level wraps, the next slot
+ * of the level above is cascaded down. Timers further out than the top level
+ * wait in an overflow list until the top level wraps.
+ *
+ * Each timer is a node in a doubly linked slot list, found through an id
+ * index, so cancel and reschedule just unlink it. Not thread-safe; callers
+ * synchronize.
+ */
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Node[][] wheels = new Node[LEVELS][SLOTS];
+    private final Node overflow = Node.sentinel();
+    private final Map<Long, Node> index = new HashMap<>();
+    // timers that were already due when scheduled, handed out by the next advance
+    private final List<Node> due = new ArrayList<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (Node[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = Node.sentinel();
+            }
+        }
+    }
+
+    /** A timer that came due: its id and the deadline it was scheduled for. */
+    public record Expired(long id, long deadlineMillis) {
+    }
+
+    /** Schedule {@code id} at {@code deadlineMillis}, replacing any timer it already has. */
+    public void schedule(long id, long deadlineMillis) {
+        cancel(id);
+        Node node = new Node(id, deadlineMillis);
+        index.put(id, node);
+        place(node);
+    }
+
+    public boolean cancel(long id) {
+        Node node = index.remove(id);
+        if (node == null) {
+            return false;
+        }
+        if (node.prev != null) {
+            node.unlink();
+        } else {
+            due.remove(node);
+        }
+        return true;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /** Move the wheel to {@code nowMillis} and return every timer now due, oldest tick first. */
+    public List<Expired> advance(long nowMillis) {
+        List<Expired> expired = new ArrayList<>();
+        drainDue(expired);
+
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+            drainDue(expired); // cascaded timers whose tick is this one
+            Node head = wheels[0][(int) (currentTick & MASK)];
+            while (head.next != head) {
+                Node node = head.next;
+                node.unlink();
+                expire(node, expired);
+            }
+        }
+        return expired;
+    }
+
+    private void drainDue(List<Expired> expired) {
+        for (Node node : due) {
+            expire(node, expired);
+        }
+        due.clear();
+    }
+
+    private void expire(Node node, List<Expired> expired) {
+        index.remove(node.id);
+        expired.add(new Expired(node.id, node.deadlineMillis));
+    }
+
+    // When level i-1 has just wrapped, the current slot of level i holds the
+    // timers of the turn that starts now; spread them over the lower levels
+    private void cascade() {
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                continue;
+            }
+            if (level == LEVELS - 1) {
+                replace(overflow);
+            }
+            replace(wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & MASK)]);
+        }
+    }
+
+    private void replace(Node head) {
+        Node node = head.next;
+        head.next = head;
+        head.prev = head;
+        while (node != head) {
+            Node next = node.next;
+            node.prev = null;
+            node.next = null;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node node) {
+        long tick = node.deadlineMillis / tickMillis;
+        long delta = tick - currentTick;
+        if (delta <= 0) {
+            node.prev = null;
+            due.add(node);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < (1L << (SLOT_BITS * (level + 1)))) {
+                wheels[level][(int) ((tick >>> (SLOT_BITS * level)) & MASK)].append(node);
+                return;
+            }
+        }
+        overflow.append(node);
+    }
+
+    private static final class Node {
+        final long id;
+        final long deadlineMillis;
+        Node prev;
+        Node next;
+
+        Node(long id, long deadlineMillis) {
+            this.id = id;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        static Node sentinel() {
+            Node head = new Node(-1, 0);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        void append(Node node) {
+            node.prev = prev;
+            node.next = this;
+            prev.next = node;
+            prev = node;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
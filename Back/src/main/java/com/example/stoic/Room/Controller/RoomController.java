@@ -1,19 +1,25 @@
 package com.example.stoic.Room.Controller;
 
 import com.example.stoic.Notification.Model.NotificationType;
+import com.example.stoic.Notification.Service.NotificationJob;
+import com.example.stoic.Notification.Service.NotificationJobQueue;
 import com.example.stoic.Notification.Service.NotificationService;
 import com.example.stoic.Post.Model.Post;
 import com.example.stoic.Post.Repo.PostRepo;
 import com.example.stoic.Post.Service.PostServiceImpl;
+import com.example.stoic.Post.Service.PostSummary;
 import com.example.stoic.Room.Model.Room;
 import com.example.stoic.Room.Model.RoomType;
 import com.example.stoic.Room.Repo.RoomRepo;
 import com.example.stoic.Room.Service.RoomService;
 import com.example.stoic.Room.Service.RoomServiceImpl;
 import com.example.stoic.Room.dto.RoomDTO;
+import com.example.stoic.Room.dto.RoomMemberDTO;
 import com.example.stoic.User.Model.User;
 import com.example.stoic.User.Model.UserRole;
 import com.example.stoic.User.Service.UserServiceImpl;
+import com.example.stoic.common.CursorPage;
+import com.example.stoic.common.LikeToggle;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpSession;
@@ -39,15 +45,20 @@ public class RoomController {
 
     private final RoomServiceImpl roomService;
     private final PostRepo postRepo;
+    private final PostServiceImpl postService;
     private final UserServiceImpl uServiceImpl;
     private final NotificationService notificationService;
+    private final NotificationJobQueue notificationJobs;
 
-    public RoomController(RoomServiceImpl roomService, PostRepo postRepo, UserServiceImpl uServiceImpl,
-            NotificationService notificationService) {
+    public RoomController(RoomServiceImpl roomService, PostRepo postRepo, PostServiceImpl postService,
+            UserServiceImpl uServiceImpl, NotificationService notificationService,
+            NotificationJobQueue notificationJobs) {
         this.roomService = roomService;
         this.postRepo = postRepo;
+        this.postService = postService;
         this.uServiceImpl = uServiceImpl;
         this.notificationService = notificationService;
+        this.notificationJobs = notificationJobs;
     }
 
     @GetMapping("/")
@@ -156,8 +167,8 @@ public class RoomController {
     }
 
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getUsersByRoomId(@RequestParam int roomId) {
-        List<User> users = roomService.findUsersByRoomId(roomId);
+    public ResponseEntity<List<RoomMemberDTO>> getUsersByRoomId(@RequestParam int roomId) {
+        List<RoomMemberDTO> users = roomService.findMembersByRoomId(roomId).toList();
         return new ResponseEntity<>(users, HttpStatus.OK);
     }
 
@@ -169,41 +180,20 @@ public class RoomController {
                 return -1; // Unauthorized
             }
 
-            Post post = postRepo.findByid(id);
-            if (post == null) {
+            LikeToggle toggle = postService.toggleLike(id, user.getUserId());
+            if (toggle == null) {
                 return -2; // Post not found
             }
-            User Temp = user;
-
-            // Check if user already liked the post
-            boolean alreadyLiked = post.Getlikes(user);
-            System.out.println("User " + user.getUsername() + " already liked post: " + alreadyLiked);
-            if (alreadyLiked) {
-                // Unlike the post
-                System.out.println("User " + user.getUsername() + " is unliking post with ID: " + id);
-                postRepo.deleteLike(id, user.getUserId());
-                // postRepo.save(post);
-            } else {
-                System.out.println("User " + user.getUsername() + " is liking post with ID: " + id);
-                // Like the post
-                post.getLikes().add(user);
-            }
-            Post savedPost = postRepo.save(post);
-            User temp = savedPost.getAuthor();
-            // notificationService.createNotification(
-            // user,
-            // "Post Li",
-            // "You have successfully joined the room: " + room.getRoomName(),
-            // NotificationType.USER_JOINED);
-            if (!alreadyLiked) {
-                notificationService.createNotification(
-                        temp,
+            if (toggle.liked()) {
+                notificationJobs.submit(NotificationJob.coalesced(
+                        List.of(postRepo.findAuthorId(id)),
+                        NotificationType.POST_LIKED,
+                        "post:" + id,
+                        user.getUsername(),
                         "Your post is getting recognized! ",
-                        user.getUsername() + " Liked your post",
-                        NotificationType.POST_LIKED);
+                        "liked your post"));
             }
-            // Return the updated post data
-            return savedPost.getLikes().size(); // Return the number of likes
+            return toggle.likeCount(); // Return the number of likes
 
         } catch (Exception e) {
             return -3; // Internal server error
@@ -335,6 +325,22 @@ public class RoomController {
                     : ResponseEntity.ok(posts);
         }
 
+        // Paginated feed: ?limit=N[&before={date,id}]
+        @GetMapping(value = "/posts/room/{roomId}", params = "limit")
+        public ResponseEntity<CursorPage<PostSummary>> getFeedPage(
+                @PathVariable int roomId,
+                @RequestParam(required = false) String before,
+                @RequestParam int limit,
+                HttpSession session) {
+            User viewer = (User) session.getAttribute("user");
+            try {
+                return ResponseEntity.ok(postService.getFeedPage(roomId, before, limit,
+                        viewer == null ? null : viewer.getUserId()));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
         @PostMapping("/posts/create")
         public ResponseEntity<?> createPost(@RequestBody Map<String, Object> request, HttpSession session) {
             try {
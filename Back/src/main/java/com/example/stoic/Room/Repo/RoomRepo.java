@@ -1,6 +1,7 @@
 package com.example.stoic.Room.Repo;
 
 import com.example.stoic.Room.Model.Room;
+import com.example.stoic.Room.dto.RoomMemberDTO;
 import com.example.stoic.User.Model.User;
 
 import jakarta.transaction.Transactional;
@@ -41,6 +42,13 @@ public interface RoomRepo extends JpaRepository<Room, Integer> {
         @Query("select u from Room r join r.Users u where r.roomId = :id")
         List<User> findUsersByRoomId(@Param("id") int id);
 
+        @Query("select new com.example.stoic.Room.dto.RoomMemberDTO(u.userId, u.username) " +
+                        "from Room r join r.Users u where r.roomId = :id")
+        List<RoomMemberDTO> findMembersByRoomId(@Param("id") int id);
+
+        @Query(value = "select r.room_id from user_rooms r where r.user_id = :user_id", nativeQuery = true)
+        List<Integer> findRoomIdsByUserId(@Param("user_id") int user_id);
+
         @Query("delete from Room r where r.roomId = :id")
         void deleteByRoomId(@Param("id") int id);
 
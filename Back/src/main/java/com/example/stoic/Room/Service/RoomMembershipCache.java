@@ -0,0 +1,99 @@
+package com.example.stoic.Room.Service;
+
+import com.example.stoic.Room.Repo.RoomRepo;
+import com.example.stoic.Room.dto.RoomMembers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of room id -> members.
+ *
+ * Membership writes go through {@link RoomServiceImpl}, which invalidates the
+ * room here. A load that overlaps an invalidation is not cached, so a reader
+ * can never put back the member list that was just invalidated.
+ */
+@Component
+public class RoomMembershipCache {
+
+    private final RoomRepo roomRepo;
+    private final Map<Integer, RoomMembers> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public RoomMembershipCache(RoomRepo roomRepo,
+            @Value("${stoic.rooms.members-cache.max-rooms:10000}") int maxRooms,
+            MeterRegistry meterRegistry) {
+        this.roomRepo = roomRepo;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, RoomMembers> eldest) {
+                return size() > maxRooms;
+            }
+        };
+        this.hits = Counter.builder("room.members.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("room.members.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("room.members.cache.size", this, RoomMembershipCache::size).register(meterRegistry);
+    }
+
+    public RoomMembers get(int roomId) {
+        RoomMembers members;
+        synchronized (entries) {
+            members = entries.get(roomId);
+        }
+        if (members != null) {
+            hits.increment();
+            return members;
+        }
+
+        misses.increment();
+        long seen = invalidations.get();
+        members = RoomMembers.of(roomRepo.findMembersByRoomId(roomId));
+        synchronized (entries) {
+            if (invalidations.get() == seen) {
+                entries.put(roomId, members);
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Drop a room now and, if a transaction is running, again once it commits so
+     * a reload in between cannot keep the pre-commit member list.
+     */
+    public void invalidate(int roomId) {
+        evict(roomId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(roomId);
+                }
+            });
+        }
+    }
+
+    private void evict(int roomId) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(roomId);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
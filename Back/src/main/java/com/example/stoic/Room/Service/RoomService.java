@@ -2,6 +2,7 @@ package com.example.stoic.Room.Service;
 
 import com.example.stoic.Room.Model.Room;
 import com.example.stoic.Room.dto.RoomDTO;
+import com.example.stoic.Room.dto.RoomMembers;
 import com.example.stoic.User.Model.User;
 
 import java.util.List;
@@ -32,6 +33,8 @@ public interface RoomService {
 
     List<User> findUsersByRoomId(int id);
 
+    RoomMembers findMembersByRoomId(int id);
+
     void removeUserFromRoom(int userId, int roomId);
 
     void PostForceDelete(int PostId);
@@ -1,11 +1,15 @@
 package com.example.stoic.Room.Service;
 
+import com.example.stoic.Message.Service.RecentMessageBuffer;
 import com.example.stoic.Notification.Model.Notification;
 import com.example.stoic.Notification.Model.NotificationType;
+import com.example.stoic.Notification.Service.NotificationJob;
+import com.example.stoic.Notification.Service.NotificationJobQueue;
 import com.example.stoic.Notification.Service.NotificationService;
 import com.example.stoic.Room.Model.Room;
 import com.example.stoic.Room.Repo.RoomRepo;
 import com.example.stoic.Room.dto.RoomDTO;
+import com.example.stoic.Room.dto.RoomMembers;
 import com.example.stoic.User.Model.User;
 import com.example.stoic.User.Repo.UserRepo;
 
@@ -15,6 +19,7 @@ import jakarta.transaction.Transactional;
 import org.checkerframework.checker.units.qual.s;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -26,11 +31,19 @@ public class RoomServiceImpl implements RoomService {
     private final UserRepo userRepo;
     private Notification notification;
     private final NotificationService notificationService;
+    private final RoomMembershipCache membershipCache;
+    private final NotificationJobQueue notificationJobs;
+    private final RecentMessageBuffer recentMessages;
 
-    public RoomServiceImpl(RoomRepo roomRepo, UserRepo userRepo, NotificationService notificationService) {
+    public RoomServiceImpl(RoomRepo roomRepo, UserRepo userRepo, NotificationService notificationService,
+            RoomMembershipCache membershipCache, NotificationJobQueue notificationJobs,
+            RecentMessageBuffer recentMessages) {
         this.roomRepo = roomRepo;
         this.userRepo = userRepo;
         this.notificationService = notificationService;
+        this.membershipCache = membershipCache;
+        this.notificationJobs = notificationJobs;
+        this.recentMessages = recentMessages;
     }
 
     @Override
@@ -51,6 +64,15 @@ public class RoomServiceImpl implements RoomService {
         }
     }
 
+    @Override
+    public RoomMembers findMembersByRoomId(int id) {
+        try {
+            return membershipCache.get(id);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch members by room id: " + id, e);
+        }
+    }
+
     @Override
     @Transactional
     public void deleteRoom(int roomId) {
@@ -66,6 +88,8 @@ public class RoomServiceImpl implements RoomService {
 
         // 2) now remove the room (will cascade‐remove posts)
         roomRepo.delete(room);
+        membershipCache.invalidate(roomId);
+        recentMessages.evict(roomId);
     }
 
     @Override
@@ -79,6 +103,7 @@ public class RoomServiceImpl implements RoomService {
             // userId));
             // room.removeUser(user);
             roomRepo.deleteUserFromRoom(userId, roomId);
+            membershipCache.invalidate(roomId);
             // notificationService.createNotification(
             // userRepo.findById(userId).orElse(null),
             // "You have been removed from a room",
@@ -137,7 +162,9 @@ public class RoomServiceImpl implements RoomService {
     @Override
     public Room createRoom(Room room) {
         try {
-            return roomRepo.save(room);
+            Room saved = roomRepo.save(room);
+            membershipCache.invalidate(saved.getRoomId());
+            return saved;
         } catch (Exception e) {
             throw new RuntimeException("Failed to save room", e);
         }
@@ -147,6 +174,8 @@ public class RoomServiceImpl implements RoomService {
     public void deleteRoomById(int id) {
         try {
             roomRepo.deleteById(id);
+            membershipCache.invalidate(id);
+            recentMessages.evict(id);
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete room by id: " + id, e);
         }
@@ -215,21 +244,29 @@ public class RoomServiceImpl implements RoomService {
 
             room.adduser(user); // Assuming adduser method is defined in Room class
             roomRepo.save(room);
+            membershipCache.invalidate(room.getRoomId());
             notificationService.createNotification(
                     user,
                     "Room Joined",
                     "You have successfully joined the room: " + room.getRoomName(),
                     NotificationType.USER_JOINED);
 
+            // One job for all existing members, queued once the join commits
+            List<Integer> memberIds = new ArrayList<>(usersInRoom.size());
             for (User u : usersInRoom) {
                 if (u.getUserId() != user.getUserId()) {
-                    notificationService.createNotification(
-                            u,
-                            "New User Joined",
-                            user.getUsername() + " has joined the room: " + room.getRoomName(),
-                            NotificationType.USER_JOINED);
+                    memberIds.add(u.getUserId());
                 }
             }
+            if (!memberIds.isEmpty()) {
+                notificationJobs.submit(NotificationJob.coalesced(
+                        memberIds,
+                        NotificationType.USER_JOINED,
+                        "room:" + room.getRoomId(),
+                        user.getUsername(),
+                        "New User Joined",
+                        "joined the room: " + room.getRoomName()));
+            }
 
             return 1; // Successfully joined the room
             // Save the updated room with the new user
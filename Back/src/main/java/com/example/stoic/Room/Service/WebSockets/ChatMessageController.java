@@ -1,78 +1,127 @@
 package com.example.stoic.Room.Service.WebSockets;
 
-import com.example.stoic.Notification.Model.Notification;
-import com.example.stoic.Notification.Model.NotificationType;
-import com.example.stoic.Notification.Service.NotificationService;
+import com.example.stoic.Notification.Service.NotificationJob;
+import com.example.stoic.Notification.Service.NotificationJobQueue;
 import com.example.stoic.Room.dto.ChatMessageDto;
 import com.example.stoic.Message.Model.Message;
 import com.example.stoic.Message.Service.MessageService;
+import com.example.stoic.Message.Service.RecentMessageBuffer;
 import com.example.stoic.Room.Model.Room;
 import com.example.stoic.Room.Service.RoomService;
 import com.example.stoic.User.Model.User;
 import com.example.stoic.User.Service.UserService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
-import java.time.LocalDateTime;
-import java.util.List;
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Controller
-@RequiredArgsConstructor
 public class ChatMessageController {
 
     private final MessageService messageService;
     private final RoomService roomService;
     private final UserService userService;
 
-    private final NotificationService notificationService; // new!
     private final SimpMessagingTemplate messagingTemplate;
+    private final RoomFanoutExecutor fanoutExecutor;
+    private final RecentMessageBuffer recentMessages;
+    private final ChatNotificationFanout notificationFanout;
+    private final NotificationJobQueue notificationJobs;
+
+    private final Timer persistTimer;
+    private final Timer broadcastTimer;
+    private final Timer fanoutTimer;
+
+    public ChatMessageController(MessageService messageService, RoomService roomService, UserService userService,
+            SimpMessagingTemplate messagingTemplate, RoomFanoutExecutor fanoutExecutor,
+            RecentMessageBuffer recentMessages, ChatNotificationFanout notificationFanout,
+            NotificationJobQueue notificationJobs, MeterRegistry meterRegistry) {
+        this.messageService = messageService;
+        this.roomService = roomService;
+        this.userService = userService;
+        this.messagingTemplate = messagingTemplate;
+        this.fanoutExecutor = fanoutExecutor;
+        this.recentMessages = recentMessages;
+        this.notificationFanout = notificationFanout;
+        this.notificationJobs = notificationJobs;
+        this.persistTimer = stageTimer(meterRegistry, "persist");
+        this.broadcastTimer = stageTimer(meterRegistry, "broadcast");
+        this.fanoutTimer = stageTimer(meterRegistry, "fanout");
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("chat.send.stage")
+                .description("Latency of each stage of a chat send")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
 
     @MessageMapping("/chat.send/{roomId}")
     public void sendToRoom(
             @DestinationVariable int roomId,
-            ChatMessageDto dto) {
+            ChatMessageDto dto,
+            Principal principal) {
 
+        long start = System.nanoTime();
         Room room = roomService.findRoomById(roomId);
         User sender = userService.findById(dto.getSenderId());
-        Message saved = messageService.save(dto.toEntity(room, sender));
-
-        // Broadcast to everyone in the room
-        messagingTemplate.convertAndSend(
-                "/topic/rooms/" + roomId,
-                ChatMessageDto.fromEntity(saved));
-
-        // Get all users in the room
-        List<User> roomUsers = roomService.findUsersByRoomId(roomId);
 
-        // Notify everyone EXCEPT the sender
-        for (User recipient : roomUsers) {
-            // Skip notification if recipient is the sender
-            if (recipient.getUserId() == sender.getUserId()) {
-                System.out.println("Skipping self-notification for user: " + recipient.getUsername());
-                continue;
+        // Take the room's fan-out slot here, on the inbound thread, so a busy room
+        // pushes back on its own senders and handing the fan-out over below never
+        // blocks (with write-behind on, that runs on the chat writer thread)
+        boolean fanoutOnStripe = !notificationJobs.isEnabled();
+        if (fanoutOnStripe) {
+            fanoutExecutor.reserve(roomId);
+        }
+        CompletableFuture<Message> persisted;
+        try {
+            persisted = messageService.saveAsync(dto.toEntity(room, sender));
+        } catch (RuntimeException e) {
+            persisted = CompletableFuture.failedFuture(e);
+        }
+        // Runs on the thread that completed the save: this one, or the chat writer
+        // thread once the message's batch has committed
+        persisted.whenComplete((saved, error) -> {
+            if (error != null) {
+                if (fanoutOnStripe) {
+                    fanoutExecutor.release(roomId);
+                }
+                System.err.println("❌ Error saving chat message for room " + roomId + ": " + error.getMessage());
+                if (principal != null) {
+                    messagingTemplate.convertAndSendToUser(principal.getName(), "/queue/errors",
+                            Map.of("roomId", roomId, "content", dto.getContent(), "error",
+                                    "Message could not be sent"));
+                }
+                return;
             }
+            long persistedAt = System.nanoTime();
+            persistTimer.record(persistedAt - start, TimeUnit.NANOSECONDS);
 
-            Notification notif = new Notification();
-            notif.setUser(recipient);
-            notif.setType(NotificationType.MESSAGE);
-            notif.setContent(sender.getUsername() + ": " + saved.getContent());
-            notif.setSentAt(LocalDateTime.now());
-            notif.setRead(false);
-
-            // Create notification in database
-            notificationService.createNotification(notif);
+            // Broadcast to everyone in the room
+            ChatMessageDto out = ChatMessageDto.fromEntity(saved);
+            recentMessages.append(out);
+            messagingTemplate.convertAndSend("/topic/rooms/" + roomId, out);
+            broadcastTimer.record(System.nanoTime() - persistedAt, TimeUnit.NANOSECONDS);
 
-            // Send real-time notification
-            messagingTemplate.convertAndSendToUser(
-                    recipient.getUsername(),
-                    "/queue/notifications",
-                    notif);
-
-            System.out.println("Sent notification to: " + recipient.getUsername());
-        }
+            // Member notifications go to the job queue when it is on, otherwise to the
+            // room's stripe; either way the broadcast above never waits for them
+            if (fanoutOnStripe) {
+                fanoutExecutor.reserved(roomId).execute(() -> fanoutTimer.record(() -> notificationFanout
+                        .notifyMembers(roomId, room.getRoomName(), sender.getUserId(), sender.getUsername(),
+                                saved.getContent())));
+            } else {
+                notificationJobs.submit(NotificationJob.chatMessage(roomId, room.getRoomName(),
+                        sender.getUserId(), sender.getUsername(), saved.getContent()));
+            }
+        });
     }
 }
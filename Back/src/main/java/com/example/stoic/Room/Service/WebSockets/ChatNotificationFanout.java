@@ -0,0 +1,113 @@
+package com.example.stoic.Room.Service.WebSockets;
+
+import com.example.stoic.Notification.Model.Notification;
+import com.example.stoic.Notification.Model.NotificationType;
+import com.example.stoic.Notification.Service.NotificationDTO;
+import com.example.stoic.Notification.Service.NotificationPreferences;
+import com.example.stoic.Notification.Service.NotificationService;
+import com.example.stoic.Room.Service.RoomMembershipCache;
+import com.example.stoic.Room.dto.RoomMembers;
+import com.example.stoic.common.StompPayloadEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes and pushes the "new message" notifications for one chat message.
+ * Runs on a fan-out stripe, or on a job queue consumer when the queue is on.
+ */
+@Component
+public class ChatNotificationFanout {
+
+    private final RoomMembershipCache membershipCache;
+    private final NotificationService notificationService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomPresenceTracker presence;
+    private final StompPayloadEncoder payloadEncoder;
+    private final NotificationPreferences preferences;
+
+    private final Counter suppressedNotifications;
+
+    public ChatNotificationFanout(RoomMembershipCache membershipCache, NotificationService notificationService,
+            SimpMessagingTemplate messagingTemplate, RoomPresenceTracker presence,
+            StompPayloadEncoder payloadEncoder, NotificationPreferences preferences, MeterRegistry meterRegistry) {
+        this.membershipCache = membershipCache;
+        this.notificationService = notificationService;
+        this.messagingTemplate = messagingTemplate;
+        this.presence = presence;
+        this.payloadEncoder = payloadEncoder;
+        this.preferences = preferences;
+        this.suppressedNotifications = Counter.builder("chat.notifications.suppressed")
+                .description("Message notifications not written because the member was viewing the room")
+                .register(meterRegistry);
+    }
+
+    public void notifyMembers(int roomId, String roomName, int senderId, String senderName, String messageContent) {
+        // Get all members of the room (cached id/username pairs)
+        RoomMembers members = membershipCache.get(roomId);
+
+        // Notify everyone EXCEPT the sender and members who have the room open
+        // (they already got the message from the room topic)
+        List<Integer> candidates = new ArrayList<>(members.size());
+        int suppressed = 0;
+        for (int i = 0; i < members.size(); i++) {
+            int userId = members.userId(i);
+            if (userId == senderId) {
+                continue;
+            }
+            if (presence.isViewing(roomId, userId)) {
+                suppressed++;
+                continue;
+            }
+            candidates.add(i);
+        }
+        suppressedNotifications.increment(suppressed);
+
+        // ...and members who muted messages or this room (one query for uncached members)
+        List<Integer> candidateIds = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            candidateIds.add(members.userId(i));
+        }
+        preferences.load(candidateIds);
+        List<String> recipients = new ArrayList<>(candidates.size());
+        List<Integer> recipientIds = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            if (preferences.allows(members.userId(i), NotificationType.MESSAGE, roomId)) {
+                recipients.add(members.username(i));
+                recipientIds.add(members.userId(i));
+            }
+        }
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        String title = "New message in " + roomName;
+        String content = senderName + ": " + messageContent;
+
+        // One batched insert for the whole room
+        List<Integer> ids = notificationService.createNotifications(
+                recipientIds, title, content, NotificationType.MESSAGE);
+
+        // Recipients get the same JSON except for the notification id, so encode it
+        // once and splice each id in instead of running Jackson per recipient
+        Notification notif = new Notification();
+        notif.setTitle(title);
+        notif.setType(NotificationType.MESSAGE);
+        notif.setContent(content);
+        notif.setSentAt(LocalDateTime.now());
+        StompPayloadEncoder.IdTemplate payload = payloadEncoder.encodeWithId(new NotificationDTO(notif));
+
+        for (int i = 0; i < recipients.size(); i++) {
+            // Send real-time notification
+            messagingTemplate.send(
+                    StompPayloadEncoder.userDestination(recipients.get(i), "/queue/notifications"),
+                    payload.withId(ids.get(i)));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.stoic.Room.Service.WebSockets;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.broker.AbstractSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.MultiValueMapAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Subscription registry for the simple broker that looks destinations up by
+ * exact match instead of pattern matching every subscription.
+ *
+ * All our clients subscribe to concrete destinations (/topic/rooms/{id},
+ * /topic/notifications/{userId}..., the per-session user queues), so a send
+ * is one hash lookup returning a live view of that destination's subscribers
+ * (a concurrent map of sessionId to its subscription ids); readers never lock.
+ * Subscribe and unsubscribe change one session's entry, so they cost the same
+ * on /topic/notifications/broadcast, which every client holds, as on a room
+ * with two members. A per-session index lets disconnect cleanup touch only
+ * that session's destinations. Pattern subscriptions, if anyone makes one,
+ * fall back to the default registry.
+ */
+public class ExactDestinationSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+    private static final MultiValueMap<String, String> NONE =
+            CollectionUtils.unmodifiableMultiValueMap(new LinkedMultiValueMap<>());
+
+    private final Map<String, Subscribers> byDestination = new ConcurrentHashMap<>();
+    // sessionId -> subscriptionId -> destination
+    private final Map<String, Map<String, String>> bySession = new ConcurrentHashMap<>();
+
+    private final DefaultSubscriptionRegistry patterns = new DefaultSubscriptionRegistry();
+    private final AtomicInteger patternCount = new AtomicInteger();
+
+    @Override
+    protected void addSubscriptionInternal(String sessionId, String subscriptionId, String destination,
+            Message<?> message) {
+        if (isPattern(destination)) {
+            patterns.registerSubscription(message);
+            patternCount.incrementAndGet();
+            return;
+        }
+        String previous = bySession.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            remove(previous, sessionId, subscriptionId);
+        }
+        // compute holds the destination's entry, so this cannot race a remove
+        // dropping the same destination once it is empty
+        byDestination.compute(destination, (d, subscribers) -> {
+            Subscribers result = subscribers != null ? subscribers : new Subscribers();
+            result.sessions.merge(sessionId, List.of(subscriptionId), ExactDestinationSubscriptionRegistry::plus);
+            return result;
+        });
+    }
+
+    @Override
+    protected void removeSubscriptionInternal(String sessionId, String subscriptionId, Message<?> message) {
+        Map<String, String> subs = bySession.get(sessionId);
+        String destination = subs != null ? subs.remove(subscriptionId) : null;
+        if (destination != null) {
+            remove(destination, sessionId, subscriptionId);
+        } else if (patternCount.get() > 0) {
+            patterns.unregisterSubscription(message);
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(String sessionId) {
+        Map<String, String> subs = bySession.remove(sessionId);
+        if (subs != null) {
+            subs.forEach((subscriptionId, destination) -> remove(destination, sessionId, subscriptionId));
+        }
+        if (patternCount.get() > 0) {
+            patterns.unregisterAllSubscriptions(sessionId);
+        }
+    }
+
+    @Override
+    protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+        Subscribers subscribers = byDestination.get(destination);
+        MultiValueMap<String, String> exact = subscribers != null ? subscribers.view : NONE;
+        if (patternCount.get() == 0) {
+            return exact;
+        }
+        MultiValueMap<String, String> matched = patterns.findSubscriptions(message);
+        if (matched.isEmpty()) {
+            return exact;
+        }
+        MultiValueMap<String, String> merged = copyOf(exact);
+        matched.forEach((session, ids) -> ids.forEach(id -> merged.add(session, id)));
+        return merged;
+    }
+
+    public int getDestinationCount() {
+        return byDestination.size();
+    }
+
+    private void remove(String destination, String sessionId, String subscriptionId) {
+        byDestination.computeIfPresent(destination, (d, subscribers) -> {
+            subscribers.sessions.computeIfPresent(sessionId, (s, ids) -> minus(ids, subscriptionId));
+            return subscribers.sessions.isEmpty() ? null : subscribers;
+        });
+    }
+
+    // A session rarely holds more than one subscription per destination, so its
+    // id list is a small immutable list replaced on change; readers never see it mid-update
+    private static List<String> plus(List<String> ids, List<String> added) {
+        List<String> result = new ArrayList<>(ids.size() + added.size());
+        result.addAll(ids);
+        result.addAll(added);
+        return List.copyOf(result);
+    }
+
+    private static List<String> minus(List<String> ids, String removed) {
+        List<String> result = new ArrayList<>(ids);
+        result.remove(removed);
+        return result.isEmpty() ? null : List.copyOf(result);
+    }
+
+    private static MultiValueMap<String, String> copyOf(MultiValueMap<String, String> source) {
+        MultiValueMap<String, String> copy = new LinkedMultiValueMap<>(source.size() + 1);
+        source.forEach((session, ids) -> copy.put(session, new ArrayList<>(ids)));
+        return copy;
+    }
+
+    private static boolean isPattern(String destination) {
+        return destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0;
+    }
+
+    private static final class Subscribers {
+        final ConcurrentMap<String, List<String>> sessions = new ConcurrentHashMap<>();
+        final MultiValueMap<String, String> view = CollectionUtils.unmodifiableMultiValueMap(
+                new MultiValueMapAdapter<>(sessions));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.stoic.Room.Service.WebSockets;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Striped executor for the chat notification fan-out.
+ *
+ * Every room is pinned to one single-threaded stripe, so jobs for the same room
+ * run in the order they were submitted while different rooms run in parallel.
+ * Each stripe has queue-capacity slots; a job holds one from submission until
+ * it starts. When a stripe is full the submitting thread blocks until a slot
+ * frees up, which keeps ordering intact and pushes back on the sender.
+ *
+ * A slot can also be taken ahead of time with {@link #reserve} and used later
+ * through {@link #reserved}, which never blocks; the chat writer thread hands
+ * notification fan-outs over that way, so one busy room cannot stall it.
+ */
+@Component
+public class RoomFanoutExecutor {
+
+    private final ThreadPoolExecutor[] stripes;
+    private final Semaphore[] slots;
+    private final Timer queueWait;
+
+    public RoomFanoutExecutor(
+            @Value("${stoic.chat.fanout.stripes:0}") int stripeCount,
+            @Value("${stoic.chat.fanout.queue-capacity:10000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        int count = stripeCount > 0 ? stripeCount : Runtime.getRuntime().availableProcessors();
+        this.stripes = new ThreadPoolExecutor[count];
+        this.slots = new Semaphore[count];
+        for (int i = 0; i < count; i++) {
+            String name = "room-fanout-" + i;
+            // unbounded queue: the slots bound it, so a reserved job is never refused
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    r -> {
+                        Thread t = new Thread(r, name);
+                        t.setDaemon(true);
+                        return t;
+                    });
+            slots[i] = new Semaphore(queueCapacity);
+        }
+
+        Gauge.builder("chat.fanout.queue.depth", this, RoomFanoutExecutor::queueDepth)
+                .description("Fan-out jobs waiting across all stripes")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("chat.fanout.queue.wait")
+                .description("Time a fan-out job spends queued before it starts")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a job on the stripe owning the given room.
+     */
+    public void execute(int roomId, Runnable job) {
+        reserve(roomId);
+        submit(roomId, job);
+    }
+
+    /**
+     * Block until the room's stripe has a free slot and take it. Pass exactly
+     * one job to {@link #reserved} afterwards, or {@link #release} it, or the
+     * slot stays taken.
+     */
+    public void reserve(int roomId) {
+        try {
+            slots[stripeIndex(roomId)].acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing fan-out", e);
+        }
+    }
+
+    /** Give back a slot taken by {@link #reserve} that will not be used. */
+    public void release(int roomId) {
+        slots[stripeIndex(roomId)].release();
+    }
+
+    /** Runs a job on the room's stripe in a slot taken by {@link #reserve}; never blocks. */
+    public Executor reserved(int roomId) {
+        return job -> submit(roomId, job);
+    }
+
+    private void submit(int roomId, Runnable job) {
+        int stripe = stripeIndex(roomId);
+        long queuedAt = System.nanoTime();
+        try {
+            stripes[stripe].execute(() -> {
+                slots[stripe].release();
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    job.run();
+                } catch (Exception e) {
+                    System.err.println("❌ Fan-out failed for room " + roomId + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots[stripe].release();
+            throw e;
+        }
+    }
+
+    public int queueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor stripe : stripes) {
+            depth += stripe.getQueue().size();
+        }
+        return depth;
+    }
+
+    private int stripeIndex(int roomId) {
+        return Math.floorMod(roomId, stripes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.stoic.Room.Service.WebSockets;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Who is currently looking at which room, from the STOMP subscriptions to
+ * /topic/rooms/{roomId} on this node.
+ *
+ * The viewer is the logged-in user of the STOMP session (see
+ * SessionUserHandshakeHandler), never an id the client supplies: a "userId"
+ * header the chat screen still sends is only accepted when it matches. A user
+ * counts as viewing a room while at least one of their sessions holds such a
+ * subscription (several tabs or devices are counted separately).
+ * With the broker relay enabled this only knows about sessions on this node,
+ * which errs on the side of still writing a notification.
+ */
+@Component
+public class RoomPresenceTracker {
+
+    private static final String ROOM_TOPIC = "/topic/rooms/";
+    private static final String USER_ID_HEADER = "userId";
+
+    // sessionId -> subscriptionId -> the room/user it registered
+    private final Map<String, Map<String, Viewer>> sessions = new ConcurrentHashMap<>();
+    // roomId -> userId -> number of live subscriptions
+    private final Map<Integer, Map<Integer, AtomicInteger>> viewers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+
+    public RoomPresenceTracker(MeterRegistry meterRegistry) {
+        Gauge.builder("chat.presence.subscriptions", subscriptions, AtomicInteger::get)
+                .description("Room-topic subscriptions tracked for presence")
+                .register(meterRegistry);
+    }
+
+    public boolean isViewing(int roomId, int userId) {
+        Map<Integer, AtomicInteger> room = viewers.get(roomId);
+        return room != null && room.containsKey(userId);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Integer roomId = roomIdOf(accessor.getDestination());
+        Integer userId = SessionUserHandshakeHandler.userId(accessor.getSessionAttributes());
+        if (roomId == null || userId == null || accessor.getSessionId() == null
+                || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String claimed = accessor.getFirstNativeHeader(USER_ID_HEADER);
+        if (claimed != null && !userId.equals(parseId(claimed))) {
+            return; // someone else's id; do not silence that user's notifications
+        }
+        Viewer viewer = new Viewer(roomId, userId);
+        Viewer previous = sessions.computeIfAbsent(accessor.getSessionId(), k -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), viewer);
+        if (previous != null) {
+            release(previous);
+        }
+        viewers.compute(roomId, (k, room) -> {
+            Map<Integer, AtomicInteger> users = room != null ? room : new ConcurrentHashMap<>();
+            users.computeIfAbsent(userId, u -> new AtomicInteger()).incrementAndGet();
+            return users;
+        });
+        subscriptions.incrementAndGet();
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Map<String, Viewer> subs = sessions.get(accessor.getSessionId());
+        Viewer viewer = subs != null ? subs.remove(accessor.getSubscriptionId()) : null;
+        if (viewer != null) {
+            release(viewer);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Viewer> subs = sessions.remove(event.getSessionId());
+        if (subs != null) {
+            subs.values().forEach(this::release);
+        }
+    }
+
+    private void release(Viewer viewer) {
+        viewers.computeIfPresent(viewer.roomId, (k, users) -> {
+            users.computeIfPresent(viewer.userId, (u, count) -> count.decrementAndGet() > 0 ? count : null);
+            return users.isEmpty() ? null : users;
+        });
+        subscriptions.decrementAndGet();
+    }
+
+    private static Integer roomIdOf(String destination) {
+        if (destination == null || !destination.startsWith(ROOM_TOPIC)) {
+            return null;
+        }
+        return parseId(destination.substring(ROOM_TOPIC.length()));
+    }
+
+    private static Integer parseId(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Viewer {
+        final int roomId;
+        final int userId;
+
+        Viewer(int roomId, int userId) {
+            this.roomId = roomId;
+            this.userId = userId;
+        }
+    }
+}
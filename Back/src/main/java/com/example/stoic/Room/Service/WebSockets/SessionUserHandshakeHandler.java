@@ -0,0 +1,41 @@
+package com.example.stoic.Room.Service.WebSockets;
+
+import com.example.stoic.User.Model.User;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Names the STOMP session after the logged-in user.
+ *
+ * HttpSessionHandshakeInterceptor copies the HTTP session's "user" attribute
+ * (set at login) into the WebSocket session attributes; this handler turns it
+ * into the session's Principal, so convertAndSendToUser reaches that user's
+ * sessions and nothing has to trust ids sent by the client.
+ */
+public class SessionUserHandshakeHandler extends DefaultHandshakeHandler {
+
+    public static final String SESSION_USER = "user";
+
+    @Override
+    protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler,
+            Map<String, Object> attributes) {
+        if (attributes.get(SESSION_USER) instanceof User user) {
+            String username = user.getUsername();
+            return () -> username;
+        }
+        return super.determineUser(request, wsHandler, attributes);
+    }
+
+    /** The logged-in user's id for a STOMP session, or null for an anonymous one. */
+    public static Integer userId(Map<String, Object> sessionAttributes) {
+        if (sessionAttributes != null && sessionAttributes.get(SESSION_USER) instanceof User user) {
+            return user.getUserId();
+        }
+        return null;
+    }
+}
@@ -1,13 +1,41 @@
 package com.example.stoic.Room.Service.WebSockets;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.*;
+import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
 
+/**
+ * The one place the message broker is configured.
+ *
+ * By default an in-memory simple broker is used, which only reaches clients
+ * connected to this JVM. With spring.websocket.stomp.relay.enabled=true,
+ * /topic, /queue and user destinations go through an external STOMP broker
+ * (ActiveMQ) instead, so several backend nodes can share subscriptions.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketBrokerConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${spring.websocket.stomp.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${spring.websocket.stomp.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${spring.websocket.stomp.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${spring.websocket.stomp.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${spring.websocket.stomp.relay.passcode:guest}")
+    private String relayPasscode;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // clients will do new SockJS("/ws-chat"). 
@@ -15,14 +43,50 @@ public class WebSocketBrokerConfig implements WebSocketMessageBrokerConfigurer {
         registry
             .addEndpoint("/ws-chat")
             .setAllowedOriginPatterns("${UserIphttp}", "${UserIPexp}", "${UserIphttp}")
+            // the logged-in user from the HTTP session becomes the STOMP session's user
+            .addInterceptors(new HttpSessionHandshakeInterceptor())
+            .setHandshakeHandler(new SessionUserHandshakeHandler())
             .withSockJS();
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // messages whose destination starts "/topic" go back to clients
-        config.enableSimpleBroker("/topic");
+        if (relayEnabled) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // a convertAndSendToUser for a user connected to another node is
+                    // re-published here and resolved by the node that holds the session
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            // messages whose destination starts "/topic" or "/queue" go back to clients
+            // (/queue carries the per-user destinations, e.g. /user/queue/notifications)
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         // messages whose destination starts "/app" are routed to @MessageMapping handlers
         config.setApplicationDestinationPrefixes("/app");
     }
+
+    /**
+     * Swaps the simple broker's pattern-matching registry for the exact-match one.
+     * Static so it does not pull this configuration in before post-processing.
+     */
+    @Bean
+    public static BeanPostProcessor subscriptionRegistryInstaller(
+            @Value("${stoic.websocket.exact-subscription-registry:true}") boolean exactRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (exactRegistry && bean instanceof SimpleBrokerMessageHandler handler) {
+                    handler.setSubscriptionRegistry(new ExactDestinationSubscriptionRegistry());
+                }
+                return bean;
+            }
+        };
+    }
 }
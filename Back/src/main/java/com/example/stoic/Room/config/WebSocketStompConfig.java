@@ -1,7 +1,6 @@
 package com.example.stoic.Room.config;
 
 import org.springframework.context.annotation.Configuration;
-import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -24,12 +23,7 @@ public class WebSocketStompConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();
     }
 
-    @Override
-    public void configureMessageBroker(MessageBrokerRegistry registry) {
-        // prefix for messages FROM server to client
-        registry.enableSimpleBroker("/topic");
-        // prefix for messages FROM client to server
-        registry.setApplicationDestinationPrefixes("/app");
-    }
+    // The broker itself (simple broker or STOMP relay) is configured in
+    // WebSocketBrokerConfig; configuring it here as well would override it.
 
 }
@@ -7,6 +7,7 @@ import com.example.stoic.User.Model.User;
 import java.time.LocalDateTime;
 
 public class ChatMessageDto {
+  private Long id;
   private int roomId;
   private int senderId;
   private String senderName; // ✅ Add this
@@ -15,7 +16,28 @@ public class ChatMessageDto {
 
   public ChatMessageDto() {}
 
+  /**
+   * Used by the history projection queries in MessageRepo.
+   */
+  public ChatMessageDto(Long id, int roomId, int senderId, String senderName, String content,
+      LocalDateTime sentAt) {
+    this.id = id;
+    this.roomId = roomId;
+    this.senderId = senderId;
+    this.senderName = senderName;
+    this.content = content;
+    this.sentAt = sentAt;
+  }
+
   // ✅ Getters and Setters
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
   public int getRoomId() {
     return roomId;
   }
@@ -73,6 +95,7 @@ public class ChatMessageDto {
    */
   public static ChatMessageDto fromEntity(Message m) {
     ChatMessageDto dto = new ChatMessageDto();
+    dto.setId(m.getId());
     dto.setRoomId(m.getRoom().getRoomId());
     dto.setSenderId(m.getSender().getUserId());
     dto.setSenderName(m.getSender().getUsername()); // ✅ Get name from sender
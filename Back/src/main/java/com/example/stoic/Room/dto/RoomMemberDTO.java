@@ -0,0 +1,13 @@
+package com.example.stoic.Room.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomMemberDTO {
+    private int userId;
+    private String username;
+}
@@ -0,0 +1,49 @@
+package com.example.stoic.Room.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact, immutable member list of a room: parallel arrays of user ids and
+ * usernames, so a cached room costs two arrays instead of a list of entities.
+ */
+public final class RoomMembers {
+
+    private final int[] userIds;
+    private final String[] usernames;
+
+    private RoomMembers(int[] userIds, String[] usernames) {
+        this.userIds = userIds;
+        this.usernames = usernames;
+    }
+
+    public static RoomMembers of(List<RoomMemberDTO> members) {
+        int[] ids = new int[members.size()];
+        String[] names = new String[members.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = members.get(i).getUserId();
+            names[i] = members.get(i).getUsername();
+        }
+        return new RoomMembers(ids, names);
+    }
+
+    public int size() {
+        return userIds.length;
+    }
+
+    public int userId(int index) {
+        return userIds[index];
+    }
+
+    public String username(int index) {
+        return usernames[index];
+    }
+
+    public List<RoomMemberDTO> toList() {
+        List<RoomMemberDTO> list = new ArrayList<>(userIds.length);
+        for (int i = 0; i < userIds.length; i++) {
+            list.add(new RoomMemberDTO(userIds[i], usernames[i]));
+        }
+        return list;
+    }
+}
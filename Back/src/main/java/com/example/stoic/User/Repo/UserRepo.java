@@ -3,8 +3,12 @@ package com.example.stoic.User.Repo;
 import com.example.stoic.User.Model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -25,4 +29,10 @@ public interface UserRepo extends JpaRepository<User, Integer>, JpaSpecification
 
 
     Optional<User> findByUsername(String username);
+
+    /**
+     * (userId, username) rows for many users in one query.
+     */
+    @Query("SELECT u.userId, u.username FROM User u WHERE u.userId IN :userIds")
+    List<Object[]> findUsernames(@Param("userIds") Collection<Integer> userIds);
 }
@@ -1,5 +1,7 @@
 package com.example.stoic.User.Service;
 
+import com.example.stoic.Room.Repo.RoomRepo;
+import com.example.stoic.Room.Service.RoomMembershipCache;
 import com.example.stoic.User.Model.OnboardingStatus;
 import com.example.stoic.User.Model.User;
 import com.example.stoic.User.Model.UserRole;
@@ -19,9 +21,13 @@ import java.util.NoSuchElementException;
 public class UserServiceImpl implements UserService {
 
     private final UserRepo userRepo;
+    private final RoomRepo roomRepo;
+    private final RoomMembershipCache membershipCache;
 
-    public UserServiceImpl(UserRepo userRepo) {
+    public UserServiceImpl(UserRepo userRepo, RoomRepo roomRepo, RoomMembershipCache membershipCache) {
         this.userRepo = userRepo;
+        this.roomRepo = roomRepo;
+        this.membershipCache = membershipCache;
     }
 
     @Override
@@ -49,7 +55,11 @@ public class UserServiceImpl implements UserService {
         if (!userRepo.existsById(id)) {
             throw new NoSuchElementException("User with ID " + id + " not found, cannot delete.");
         }
+        // the user's memberships go with them; drop those rooms from the cache now
+        // and after commit, or fan-outs keep writing notifications for a deleted id
+        List<Integer> roomIds = roomRepo.findRoomIdsByUserId(id);
         userRepo.deleteById(id);
+        roomIds.forEach(membershipCache::invalidate);
     }
 
     @Override
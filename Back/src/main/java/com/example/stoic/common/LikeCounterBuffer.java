@@ -0,0 +1,251 @@
+package com.example.stoic.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hot-counter layer for like_count (opt-in, stoic.likes.hot-counters.enabled).
+ *
+ * Like toggles add their +1/-1 here instead of updating the post or comment
+ * row, so concurrent likers of one popular post no longer queue on its row
+ * lock. Each target has a few cells and every add picks one at random,
+ * like LongAdder's striping; unlike LongAdder each cell is drained with
+ * getAndSet, so no delta added during a flush is lost. Every flush-ms the
+ * drained deltas go out as one batched UPDATE per table, in one transaction.
+ *
+ * Drained deltas stay in the target's in-flight total until their UPDATE
+ * commits, so {@link #pending} keeps counting them while the flush runs; a
+ * failed flush leaves them there for the next one.
+ *
+ * Targets idle for a while are dropped: their cells are removed from the map
+ * and then sealed, so an add still holding the old cells sees the seal and
+ * retries on fresh ones instead of landing where nobody drains.
+ *
+ * Deltas not yet flushed are lost if the process dies; like rows themselves
+ * are written synchronously, so like_count can be recounted from them.
+ */
+@Component
+public class LikeCounterBuffer {
+
+    public enum Target {
+        POST("post"),
+        COMMENT("comments");
+
+        private final String table;
+
+        Target(String table) {
+            this.table = table;
+        }
+    }
+
+    private static final int STRIPES = Math.min(16, Runtime.getRuntime().availableProcessors());
+    // flushes without any delta before a target's cells are dropped
+    private static final int IDLE_FLUSHES = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Map<Target, ConcurrentHashMap<Integer, Cells>> pending = new ConcurrentHashMap<>();
+
+    private final Timer flushTimer;
+    private final DistributionSummary rowsPerFlush;
+
+    public LikeCounterBuffer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry, @Value("${stoic.likes.hot-counters.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        for (Target target : Target.values()) {
+            pending.put(target, new ConcurrentHashMap<>());
+        }
+        this.flushTimer = Timer.builder("likes.hot_counters.flush")
+                .description("Time to write one round of buffered like deltas")
+                .register(meterRegistry);
+        this.rowsPerFlush = DistributionSummary.builder("likes.hot_counters.rows")
+                .description("Rows updated per flush")
+                .register(meterRegistry);
+        Gauge.builder("likes.hot_counters.targets", this, LikeCounterBuffer::size)
+                .description("Posts and comments with buffered like cells")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(Target target, int id, long delta) {
+        ConcurrentHashMap<Integer, Cells> targets = pending.get(target);
+        while (!targets.computeIfAbsent(id, k -> new Cells(target, id)).tryAdd(delta)) {
+            // sealed by the flusher after we looked it up; the map has (or gets) fresh cells
+        }
+    }
+
+    /** {@link #add} once the current transaction commits, so a rolled-back like is never counted. */
+    public void addAfterCommit(Target target, int id, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(target, id, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(target, id, delta);
+            }
+        });
+    }
+
+    /** Delta added but not committed yet; add it to the stored like_count. */
+    public long pending(Target target, int id) {
+        Cells cells = pending.get(target).get(id);
+        return cells == null ? 0 : cells.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<Integer, Cells> targets : pending.values()) {
+            size += targets.size();
+        }
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${stoic.likes.hot-counters.flush-ms:250}")
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        Map<Target, TreeMap<Integer, Cells>> flushing = new TreeMap<>();
+        for (ConcurrentHashMap<Integer, Cells> targets : pending.values()) {
+            for (Cells cells : targets.values()) {
+                if (cells.drain() != 0) {
+                    cells.idleFlushes = 0;
+                    flushing.computeIfAbsent(cells.target, t -> new TreeMap<>()).put(cells.id, cells);
+                } else if (++cells.idleFlushes >= IDLE_FLUSHES && targets.remove(cells.id, cells)) {
+                    long late = cells.seal(); // whatever was added since the drain
+                    if (late != 0) {
+                        add(cells.target, cells.id, late);
+                    }
+                }
+            }
+        }
+        flushing.forEach(this::write);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Ids in ascending order so two flushers (or a flusher and a bulk update) lock rows in the same order.
+    // One transaction, so a failure part way through leaves none of the batch applied.
+    private void write(Target target, TreeMap<Integer, Cells> flushing) {
+        List<Object[]> rows = new ArrayList<>(flushing.size());
+        flushing.forEach((id, cells) -> rows.add(new Object[] { cells.inFlight, id }));
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE " + target.table + " SET like_count = like_count + ? WHERE id = ?", rows)));
+            rowsPerFlush.record(rows.size());
+        } catch (Exception e) {
+            // still in flight; the next flush writes them again along with anything new
+            System.err.println("❌ Error flushing like counters: " + e.getMessage());
+            return;
+        }
+        for (Object[] row : rows) {
+            flushing.get((Integer) row[1]).committed((Long) row[0]);
+        }
+    }
+
+    private static final class Cells {
+        // one cell per 64-byte cache line so stripes do not false-share
+        static final int SPACING = 8;
+        static final long SEALED = Long.MIN_VALUE;
+
+        final Target target;
+        final int id;
+        final AtomicLongArray cells = new AtomicLongArray(STRIPES * SPACING);
+        int idleFlushes; // flusher only
+        // drained but not committed; written by the flusher only
+        volatile long inFlight;
+        // odd while the flusher moves the cells into inFlight, so sum() can retry
+        private volatile int version;
+
+        Cells(Target target, int id) {
+            this.target = target;
+            this.id = id;
+        }
+
+        // false once sealed
+        boolean tryAdd(long delta) {
+            int i = ThreadLocalRandom.current().nextInt(STRIPES) * SPACING;
+            while (true) {
+                long current = cells.get(i);
+                if (current == SEALED) {
+                    return false;
+                }
+                if (cells.compareAndSet(i, current, current + delta)) {
+                    return true;
+                }
+            }
+        }
+
+        long sum() {
+            while (true) {
+                int before = version;
+                if ((before & 1) == 0) {
+                    long sum = inFlight;
+                    for (int i = 0; i < STRIPES; i++) {
+                        long value = cells.get(i * SPACING);
+                        sum += value == SEALED ? 0 : value;
+                    }
+                    if (version == before) {
+                        return sum;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        // move the cells into inFlight; returns the total now in flight
+        long drain() {
+            version++;
+            long sum = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                sum += cells.getAndSet(i * SPACING, 0);
+            }
+            inFlight += sum;
+            version++;
+            return inFlight;
+        }
+
+        void committed(long delta) {
+            inFlight -= delta;
+        }
+
+        // drain for the last time; flusher only, after removing these cells from the map
+        long seal() {
+            long sum = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                sum += cells.getAndSet(i * SPACING, SEALED);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.stoic.common;
+
+/**
+ * Outcome of toggling a like: whether the user now likes the item, and its
+ * like count after the toggle.
+ */
+public record LikeToggle(boolean liked, int likeCount) {
+}
@@ -0,0 +1,94 @@
+package com.example.stoic.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Turns broadcast payloads into ready-to-send STOMP messages, so a fan-out
+ * runs Jackson once per payload instead of once per recipient.
+ *
+ * The messages are immutable and carry only a content-type header;
+ * SimpMessagingTemplate.send copies the headers and adds the destination for
+ * each send, so one message can go to any number of destinations.
+ */
+@Component
+public class StompPayloadEncoder {
+
+    private final ObjectMapper objectMapper;
+
+    public StompPayloadEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Message<byte[]> encode(Object payload) {
+        return MessageBuilder.createMessage(toJson(payload), JSON_HEADERS);
+    }
+
+    /**
+     * Encode a payload whose only per-recipient difference is its numeric
+     * "id" field. The rest of the JSON is encoded here once and
+     * {@link IdTemplate#withId} just splices the digits in.
+     */
+    public IdTemplate encodeWithId(Object payload) {
+        ObjectNode node = objectMapper.valueToTree(payload);
+        node.remove("id");
+        byte[] rest = toJson(node); // {"title":...}
+        byte[] suffix = rest.length > 2
+                ? concat(new byte[] { ',' }, Arrays.copyOfRange(rest, 1, rest.length))
+                : new byte[] { '}' };
+        return new IdTemplate(suffix);
+    }
+
+    /** The destination convertAndSendToUser would use. */
+    public static String userDestination(String username, String destination) {
+        return "/user/" + username.replace("/", "%2F") + destination;
+    }
+
+    private byte[] toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode payload", e);
+        }
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] out = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+
+    private static final MessageHeaders JSON_HEADERS = MessageBuilder.withPayload(new byte[0])
+            .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+            .build()
+            .getHeaders();
+
+    private static final byte[] ID_PREFIX = "{\"id\":".getBytes(StandardCharsets.US_ASCII);
+
+    public static final class IdTemplate {
+        private final byte[] suffix;
+
+        private IdTemplate(byte[] suffix) {
+            this.suffix = suffix;
+        }
+
+        public Message<byte[]> withId(long id) {
+            byte[] digits = Long.toString(id).getBytes(StandardCharsets.US_ASCII);
+            byte[] body = new byte[ID_PREFIX.length + digits.length + suffix.length];
+            System.arraycopy(ID_PREFIX, 0, body, 0, ID_PREFIX.length);
+            System.arraycopy(digits, 0, body, ID_PREFIX.length, digits.length);
+            System.arraycopy(suffix, 0, body, ID_PREFIX.length + digits.length, suffix.length);
+            return MessageBuilder.createMessage(body, JSON_HEADERS);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.stoic.Comment.Service;
+
+import com.example.stoic.Comment.Model.Comment;
+import com.example.stoic.Comment.Repo.CommentRepo;
+import com.example.stoic.Post.Model.Post;
+import com.example.stoic.Post.Repo.PostRepo;
+import com.example.stoic.Room.Model.Room;
+import com.example.stoic.Room.Model.RoomType;
+import com.example.stoic.Room.Repo.RoomRepo;
+import com.example.stoic.User.Model.User;
+import com.example.stoic.User.Model.UserRole;
+import com.example.stoic.User.Repo.UserRepo;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Users, a room with a post, and comments for the comment service tests.
+ * Remembers every id it creates so {@link #cleanUp} deletes exactly those
+ * rows (and their likes and reports) and nothing else.
+ */
+class CommentFixtures {
+
+    private final UserRepo userRepo;
+    private final RoomRepo roomRepo;
+    private final PostRepo postRepo;
+    private final CommentRepo commentRepo;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final List<Integer> userIds = new ArrayList<>();
+    private final List<Integer> roomIds = new ArrayList<>();
+    private final List<Integer> postIds = new ArrayList<>();
+    private final List<Integer> commentIds = new ArrayList<>();
+
+    CommentFixtures(UserRepo userRepo, RoomRepo roomRepo, PostRepo postRepo, CommentRepo commentRepo,
+            JdbcTemplate jdbcTemplate) {
+        this.userRepo = userRepo;
+        this.roomRepo = roomRepo;
+        this.postRepo = postRepo;
+        this.commentRepo = commentRepo;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    List<User> users(String prefix, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername(prefix + i);
+            user.setEmail(prefix + i + "@example.com");
+            user.setPassword("x");
+            user.setAge(30);
+            user.setGender("n/a");
+            user.setUserRole(UserRole.REG);
+            users.add(user);
+        }
+        users = userRepo.saveAll(users);
+        users.forEach(user -> userIds.add(user.getUserId()));
+        return users;
+    }
+
+    // a post in a fresh public room owned by its author
+    Post post(String title, User author) {
+        Room room = new Room();
+        room.setRoomName(title);
+        room.setOwnerId(author.getUserId());
+        room.setType(RoomType.PUBLIC);
+        room.setCreatedAt(new Date());
+        room = roomRepo.save(room);
+        roomIds.add(room.getRoomId());
+
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent(title + " discussion");
+        post.setDate(LocalDateTime.now());
+        post.setAuthor(author);
+        post.setRoom(room);
+        post = postRepo.save(post);
+        postIds.add(post.getId());
+        return post;
+    }
+
+    int comment(Post post, User author, String content, LocalDateTime date) {
+        Comment comment = new Comment();
+        comment.setContent(content);
+        comment.setDate(date);
+        comment.setAuthor(author);
+        comment.setPost(post);
+        comment.setLikes(new ArrayList<>());
+        int id = commentRepo.save(comment).getId();
+        commentIds.add(id);
+        return id;
+    }
+
+    void cleanUp() {
+        deleteIn("DELETE FROM comment_likes WHERE comment_id IN (%s)", commentIds);
+        deleteIn("DELETE FROM comment_report WHERE comment_id IN (%s)", commentIds);
+        commentRepo.deleteAllByIdInBatch(commentIds);
+        postRepo.deleteAllByIdInBatch(postIds);
+        roomRepo.deleteAllByIdInBatch(roomIds);
+        userRepo.deleteAllByIdInBatch(userIds);
+        commentIds.clear();
+        postIds.clear();
+        roomIds.clear();
+        userIds.clear();
+    }
+
+    private void deleteIn(String sql, List<Integer> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.update(String.format(sql, String.join(",", Collections.nCopies(ids.size(), "?"))),
+                    ids.toArray());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.stoic.Comment.Service;
+
+import com.example.stoic.Comment.Repo.CommentRepo;
+import com.example.stoic.Post.Model.Post;
+import com.example.stoic.Post.Repo.PostRepo;
+import com.example.stoic.Room.Repo.RoomRepo;
+import com.example.stoic.User.Model.User;
+import com.example.stoic.User.Repo.UserRepo;
+import com.example.stoic.common.TestMySql;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Many users reporting one comment at once, each of them twice. Runs against
+ * a throwaway MySQL (see TestMySql).
+ */
+@SpringBootTest(properties = "stoic.comments.report-threshold=" + CommentReportStressTests.THRESHOLD)
+@Import(TestMySql.class)
+@Testcontainers(disabledWithoutDocker = true)
+class CommentReportStressTests {
+
+    static final int THRESHOLD = 100;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private commentservice commentService;
+
+    @Autowired
+    private CommentRepo commentRepo;
+
+    @Autowired
+    private PostRepo postRepo;
+
+    @Autowired
+    private RoomRepo roomRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CommentFixtures fixtures;
+    private List<User> reporters;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new CommentFixtures(userRepo, roomRepo, postRepo, commentRepo, jdbcTemplate);
+        reporters = fixtures.users("reporter", THRESHOLD * 2);
+        post = fixtures.post("reports", reporters.get(0));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void concurrentReportsAreAllCountedOncePerUser() throws Exception {
+        int commentId = createComment();
+        List<User> below = reporters.subList(0, THRESHOLD - 1);
+
+        Map<ReportResult.Outcome, Integer> outcomes = reportConcurrently(commentId, below);
+
+        assertEquals(THRESHOLD - 1, outcomes.get(ReportResult.Outcome.REPORTED));
+        assertEquals(THRESHOLD - 1, outcomes.get(ReportResult.Outcome.ALREADY_REPORTED));
+        assertEquals(THRESHOLD - 1, commentRepo.findReportCount(commentId));
+        assertEquals(THRESHOLD - 1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM comment_report WHERE comment_id = ?", Integer.class, commentId));
+    }
+
+    @Test
+    void exactlyOneReportDeletesTheComment() throws Exception {
+        int commentId = createComment();
+
+        Map<ReportResult.Outcome, Integer> outcomes = reportConcurrently(commentId, reporters);
+
+        assertEquals(1, outcomes.get(ReportResult.Outcome.DELETED));
+        // every report up to the threshold counted; the rest found the comment gone
+        assertEquals(THRESHOLD - 1, outcomes.get(ReportResult.Outcome.REPORTED));
+        assertFalse(commentRepo.existsById(commentId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM comment_report WHERE comment_id = ?", Integer.class, commentId));
+    }
+
+    private int createComment() {
+        return fixtures.comment(post, reporters.get(0), "reported", LocalDateTime.now());
+    }
+
+    // Each user reports twice, all released at once, in shuffled order
+    private Map<ReportResult.Outcome, Integer> reportConcurrently(int commentId, List<User> users)
+            throws Exception {
+        List<Integer> attempts = new ArrayList<>();
+        for (User user : users) {
+            attempts.add(user.getUserId());
+            attempts.add(user.getUserId());
+        }
+        Collections.shuffle(attempts);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<ReportResult>> results = new ArrayList<>();
+        for (int reporterId : attempts) {
+            results.add(pool.submit(() -> {
+                go.await();
+                return commentService.reportComment(commentId, reporterId);
+            }));
+        }
+        go.countDown();
+
+        Map<ReportResult.Outcome, Integer> outcomes = new EnumMap<>(ReportResult.Outcome.class);
+        for (ReportResult.Outcome outcome : ReportResult.Outcome.values()) {
+            outcomes.put(outcome, 0);
+        }
+        for (Future<ReportResult> result : results) {
+            outcomes.merge(result.get().outcome(), 1, Integer::sum);
+        }
+        pool.shutdown();
+        return outcomes;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.stoic.Comment.Service;
+
+import com.example.stoic.Comment.Repo.CommentRepo;
+import com.example.stoic.Post.Model.Post;
+import com.example.stoic.Post.Repo.PostRepo;
+import com.example.stoic.Room.Repo.RoomRepo;
+import com.example.stoic.User.Model.User;
+import com.example.stoic.User.Repo.UserRepo;
+import com.example.stoic.common.CursorPage;
+import com.example.stoic.common.TestMySql;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The thread page costs the same number of statements whatever its size.
+ * Runs against a throwaway MySQL (see TestMySql).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TestMySql.class)
+@Testcontainers(disabledWithoutDocker = true)
+class CommentThreadQueryCountTests {
+
+    private static final int COMMENTS = 60;
+    private static final int AUTHORS = 7;
+
+    @Autowired
+    private commentservice commentService;
+
+    @Autowired
+    private CommentRepo commentRepo;
+
+    @Autowired
+    private PostRepo postRepo;
+
+    @Autowired
+    private RoomRepo roomRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private CommentFixtures fixtures;
+    private Post post;
+    private User viewer;
+    private final List<Integer> commentIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new CommentFixtures(userRepo, roomRepo, postRepo, commentRepo, jdbcTemplate);
+        List<User> authors = fixtures.users("author", AUTHORS);
+        viewer = authors.get(0);
+        post = fixtures.post("thread", viewer);
+
+        // a few comments share a timestamp so the id tie-break is exercised
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 9, 0);
+        for (int i = 0; i < COMMENTS; i++) {
+            commentIds.add(fixtures.comment(post, authors.get(i % AUTHORS), "comment " + i,
+                    start.plusMinutes(i / 3)));
+        }
+        for (int i = 0; i < COMMENTS; i += 4) {
+            commentService.toggleLike(commentIds.get(i), viewer.getUserId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        fixtures.cleanUp();
+    }
+
+    @Test
+    void everyPageCostsThreeStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int limit : new int[] { 5, 50 }) {
+            statistics.clear();
+            CursorPage<CommentSummary> page = commentService.getThreadPage(post.getId(), null, limit,
+                    viewer.getUserId());
+
+            assertEquals(limit, page.getItems().size());
+            // page, author names, viewer's likes
+            assertEquals(3, statistics.getPrepareStatementCount(), "statements for a page of " + limit);
+        }
+    }
+
+    @Test
+    void pagesWalkTheWholeThreadInOrder() {
+        List<Integer> seen = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<CommentSummary> page = commentService.getThreadPage(post.getId(), after, 8,
+                    viewer.getUserId());
+            for (CommentSummary comment : page.getItems()) {
+                seen.add(comment.getId());
+                int index = commentIds.indexOf(comment.getId());
+                assertEquals("author" + (index % AUTHORS), comment.getAuthorName());
+                assertEquals(index % 4 == 0, comment.isLikedByMe());
+                assertEquals(index % 4 == 0 ? 1 : 0, comment.getLikeCount());
+            }
+            after = page.getNextCursor();
+        } while (after != null);
+
+        assertEquals(commentIds, seen);
+        assertNull(commentService.getThreadPage(post.getId(), null, COMMENTS + 1, null).getNextCursor());
+        assertTrue(commentService.getThreadPage(post.getId(), null, 1, null).getNextCursor() != null);
+    }
+}
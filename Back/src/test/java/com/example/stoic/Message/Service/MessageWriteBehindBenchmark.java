@@ -0,0 +1,127 @@
+package com.example.stoic.Message.Service;
+
+import com.example.stoic.Message.Model.Message;
+import com.example.stoic.Message.Repo.MessageRepo;
+import com.example.stoic.Room.Model.Room;
+import com.example.stoic.Room.Model.RoomType;
+import com.example.stoic.Room.Repo.RoomRepo;
+import com.example.stoic.User.Model.User;
+import com.example.stoic.User.Model.UserRole;
+import com.example.stoic.User.Repo.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Messages per second and p99 save latency: one transaction per message vs
+ * group commit. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "stoic.chat.write-behind.enabled=true")
+class MessageWriteBehindBenchmark {
+
+    private static final int SENDERS = 32;
+    private static final int MESSAGES_PER_SENDER = 500;
+
+    @Autowired
+    private MessageRepo messageRepo;
+
+    @Autowired
+    private MessageWriteBehind writeBehind;
+
+    @Autowired
+    private RoomRepo roomRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    private Room room;
+    private User sender;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("bench");
+        user.setEmail("bench@example.com");
+        user.setPassword("x");
+        user.setAge(30);
+        user.setGender("n/a");
+        user.setUserRole(UserRole.REG);
+        sender = userRepo.save(user);
+
+        Room r = new Room();
+        r.setRoomName("bench");
+        r.setOwnerId(sender.getUserId());
+        r.setType(RoomType.PUBLIC);
+        r.setCreatedAt(new Date());
+        room = roomRepo.save(r);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        messageRepo.deleteAllInBatch();
+        roomRepo.deleteAllInBatch();
+        userRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void perMessageCommitVersusGroupCommit() throws Exception {
+        run("per-message", () -> {
+            long start = System.nanoTime();
+            messageRepo.save(message());
+            return System.nanoTime() - start;
+        });
+        run("group commit", () -> {
+            long start = System.nanoTime();
+            CompletableFuture<Message> saved = writeBehind.submit(message());
+            saved.join();
+            return System.nanoTime() - start;
+        });
+    }
+
+    private Message message() {
+        return new Message(null, room, sender, "benchmark message", LocalDateTime.now());
+    }
+
+    private void run(String label, Callable<Long> send) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(SENDERS);
+        List<Future<long[]>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int s = 0; s < SENDERS; s++) {
+            results.add(pool.submit(() -> {
+                long[] latencies = new long[MESSAGES_PER_SENDER];
+                for (int i = 0; i < MESSAGES_PER_SENDER; i++) {
+                    latencies[i] = send.call();
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[SENDERS * MESSAGES_PER_SENDER];
+        int n = 0;
+        for (Future<long[]> f : results) {
+            for (long l : f.get()) {
+                all[n++] = l;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        Arrays.sort(all);
+        System.out.printf("%-12s %8.0f msg/s, p50 %6.2f ms, p99 %6.2f ms%n", label, all.length / seconds,
+                all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.stoic.Message.Service;
+
+import com.example.stoic.Room.dto.ChatMessageDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RecentMessageBufferTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void servesNewestPagesAfterSeedAndKeepsUpWithAppends() {
+        RecentMessageBuffer buffer = new RecentMessageBuffer(true, 5, 1 << 20, meterRegistry);
+        assertNull(buffer.page(1, null, 3));
+
+        buffer.seed(1, 5, () -> messages(1, 1, 3));
+        buffer.append(message(1, 4));
+        buffer.append(message(1, 4)); // duplicate delivery is ignored
+
+        assertEquals(List.of(2L, 3L, 4L), ids(buffer.page(1, null, 3)));
+        // the room only ever had 4 messages, so a short page is still a full answer
+        assertEquals(List.of(1L, 2L), ids(buffer.page(1, 3L, 10)));
+    }
+
+    @Test
+    void missesWhenOlderMessagesWereDroppedFromTheRing() {
+        RecentMessageBuffer buffer = new RecentMessageBuffer(true, 3, 1 << 20, meterRegistry);
+        buffer.seed(1, 3, () -> messages(1, 1, 3));
+        buffer.append(message(1, 4));
+
+        assertEquals(List.of(3L, 4L), ids(buffer.page(1, null, 2)));
+        assertNull(buffer.page(1, 3L, 2));
+        assertEquals(1.0, meterRegistry.get("chat.recent_buffer.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedRoomOverBudget() {
+        long oneRoom = 3 * RecentMessageBuffer.estimateBytes(message(1, 1));
+        RecentMessageBuffer buffer = new RecentMessageBuffer(true, 3, oneRoom, meterRegistry);
+        buffer.seed(1, 3, () -> messages(1, 1, 3));
+        buffer.seed(2, 3, () -> messages(2, 10, 3));
+
+        assertEquals(1, buffer.roomCount());
+        assertNull(buffer.page(1, null, 1));
+        assertNotNull(buffer.page(2, null, 1));
+    }
+
+    @Test
+    void deletedRoomIsEvictedAndStopsTakingAppends() {
+        RecentMessageBuffer buffer = new RecentMessageBuffer(true, 3, 1 << 20, meterRegistry);
+        buffer.seed(1, 3, () -> messages(1, 1, 3));
+
+        buffer.evict(1);
+        buffer.append(message(1, 4));
+
+        assertEquals(0, buffer.roomCount());
+        assertNull(buffer.page(1, null, 1));
+        assertEquals(0.0, meterRegistry.get("chat.recent_buffer.bytes").gauge().value());
+    }
+
+    private static List<ChatMessageDto> messages(int roomId, long firstId, int count) {
+        List<ChatMessageDto> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            list.add(message(roomId, firstId + i));
+        }
+        return list;
+    }
+
+    private static ChatMessageDto message(int roomId, long id) {
+        return new ChatMessageDto(id, roomId, 7, "ana", "hello", LocalDateTime.now());
+    }
+
+    private static List<Long> ids(List<ChatMessageDto> page) {
+        return page.stream().map(ChatMessageDto::getId).toList();
+    }
+}
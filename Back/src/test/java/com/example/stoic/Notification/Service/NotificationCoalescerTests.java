@@ -0,0 +1,96 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Model.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationCoalescerTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void mergesEventsForTheSameTargetIntoOneRow() {
+        NotificationCoalescer coalescer = new NotificationCoalescer(true, 60_000, meterRegistry);
+
+        NotificationCoalescer.Window window = like(coalescer, "ana");
+        assertNotNull(window);
+        coalescer.attach(window, 11);
+        for (int i = 0; i < 41; i++) {
+            assertNull(like(coalescer, "user" + i));
+        }
+        assertNotNull(coalescer.offer(5, NotificationType.POST_LIKED, "post:2", "bob", "t", "liked your post"));
+
+        List<NotificationCoalescer.Window> dirty = coalescer.drainDirty();
+        assertEquals(List.of(window), dirty);
+        NotificationCoalescer.Flush flush = window.take();
+        assertEquals(11, flush.notificationId);
+        assertEquals(42, flush.total);
+        assertEquals("user40", flush.latestActor);
+        assertEquals("user40 and 41 others liked your post",
+                NotificationServiceImpl.groupedMessage(flush.latestActor, flush.total, "liked your post"));
+
+        window.flushed(11, 42);
+        assertTrue(coalescer.drainDirty().isEmpty());
+        assertEquals(21.5, meterRegistry.get("notifications.coalesce.ratio").tag("type", "POST_LIKED").gauge().value());
+    }
+
+    @Test
+    void holdsEventsUntilTheFirstRowIsWritten() {
+        NotificationCoalescer coalescer = new NotificationCoalescer(true, 60_000, meterRegistry);
+        NotificationCoalescer.Window window = like(coalescer, "ana");
+        like(coalescer, "bob");
+
+        assertNull(window.take());
+        coalescer.attach(window, 3);
+        assertEquals(2, window.take().total);
+    }
+
+    @Test
+    void countsEachActorOnce() {
+        NotificationCoalescer coalescer = new NotificationCoalescer(true, 60_000, meterRegistry);
+        NotificationCoalescer.Window window = like(coalescer, "ana");
+        coalescer.attach(window, 4);
+        assertNull(like(coalescer, "ana")); // unliked and liked again
+        assertNull(like(coalescer, "ana"));
+        assertNull(window.take());
+
+        assertNull(like(coalescer, "bob"));
+        assertNull(like(coalescer, "bob"));
+        NotificationCoalescer.Flush flush = window.take();
+        assertEquals(2, flush.total);
+        assertEquals("bob and 1 other liked your post",
+                NotificationServiceImpl.groupedMessage(flush.latestActor, flush.total, "liked your post"));
+    }
+
+    @Test
+    void startsANewWindowOnceTheOldOneExpired() throws InterruptedException {
+        NotificationCoalescer coalescer = new NotificationCoalescer(true, 1, meterRegistry);
+        NotificationCoalescer.Window first = like(coalescer, "ana");
+        coalescer.attach(first, 1);
+        Thread.sleep(5);
+        NotificationCoalescer.Window second = like(coalescer, "bob");
+        assertNotNull(second);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void writesEveryEventWhenDisabled() {
+        NotificationCoalescer coalescer = new NotificationCoalescer(false, 60_000, meterRegistry);
+        assertNotNull(like(coalescer, "ana"));
+        assertNotNull(like(coalescer, "bob"));
+        assertEquals(1.0, meterRegistry.get("notifications.coalesce.ratio").tag("type", "POST_LIKED").gauge().value());
+    }
+
+    private static NotificationCoalescer.Window like(NotificationCoalescer coalescer, String actor) {
+        return coalescer.offer(7, NotificationType.POST_LIKED, "post:1", actor, "Your post is getting recognized! ",
+                "liked your post");
+    }
+}
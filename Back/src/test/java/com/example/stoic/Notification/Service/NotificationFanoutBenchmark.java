@@ -0,0 +1,92 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Model.Notification;
+import com.example.stoic.Notification.Model.NotificationType;
+import com.example.stoic.Notification.Repo.NotificationRepo;
+import com.example.stoic.User.Model.User;
+import com.example.stoic.User.Model.UserRole;
+import com.example.stoic.User.Repo.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Per-row vs batched notification fan-out. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class NotificationFanoutBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepo notificationRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @AfterEach
+    void cleanUp() {
+        notificationRepo.deleteAllInBatch();
+        userRepo.deleteAllInBatch();
+    }
+
+    @ParameterizedTest(name = "room of {0} members")
+    @ValueSource(ints = { 10, 100, 1_000 })
+    void perRowVersusBatched(int members) {
+        List<User> users = createUsers(members);
+        List<Integer> userIds = users.stream().map(User::getUserId).toList();
+
+        long perRow = Long.MAX_VALUE;
+        long batched = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (User user : users) {
+                Notification notif = new Notification();
+                notif.setUser(user);
+                notif.setTitle("bench");
+                notif.setType(NotificationType.MESSAGE);
+                notif.setContent("per-row");
+                notif.setSentAt(LocalDateTime.now());
+                notificationService.createNotification(notif);
+            }
+            perRow = Math.min(perRow, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            List<Integer> ids = notificationService.createNotifications(
+                    userIds, "bench", "batched", NotificationType.MESSAGE);
+            batched = Math.min(batched, System.nanoTime() - start);
+            assertEquals(members, ids.size());
+        }
+
+        System.out.printf("fan-out %5d members: per-row %8.2f ms, batched %8.2f ms (%.1fx)%n",
+                members, perRow / 1e6, batched / 1e6, (double) perRow / batched);
+    }
+
+    private List<User> createUsers(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername("bench" + i);
+            user.setEmail("bench" + i + "@example.com");
+            user.setPassword("x");
+            user.setAge(30);
+            user.setGender("n/a");
+            user.setUserRole(UserRole.REG);
+            users.add(user);
+        }
+        return userRepo.saveAll(users);
+    }
+}
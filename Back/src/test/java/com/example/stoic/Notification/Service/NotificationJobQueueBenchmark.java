@@ -0,0 +1,59 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Room.Service.WebSockets.ChatNotificationFanout;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.stoic.Notification.Service.NotificationJobQueueTests.startNode;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Job throughput through an embedded broker as consumers are added. Each job
+ * stands in for a room fan-out and blocks for WORK_MS, about the cost of its
+ * batched notification insert, so the queue is consumer-bound.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=NotificationJobQueueBenchmark
+ */
+@Tag("benchmark")
+class NotificationJobQueueBenchmark {
+
+    private static final int JOBS = 2_000;
+    private static final long WORK_MS = 2;
+
+    @ParameterizedTest(name = "{0} consumers, {1} ack")
+    @CsvSource({ "1, transacted", "2, transacted", "4, transacted", "8, transacted", "16, transacted",
+            "8, client", "8, dups_ok" })
+    void throughputScalesWithConsumers(int consumers, String ackMode) throws Exception {
+        String broker = "jobs-bench-" + consumers + "-" + ackMode;
+        try (ConfigurableApplicationContext context = startNode(broker, consumers + "-" + consumers, ackMode)) {
+            NotificationJobQueue jobs = context.getBean(NotificationJobQueue.class);
+            CountDownLatch done = new CountDownLatch(JOBS);
+            doAnswer(inv -> {
+                Thread.sleep(WORK_MS);
+                done.countDown();
+                return null;
+            }).when(context.getBean(ChatNotificationFanout.class))
+                    .notifyMembers(anyInt(), anyString(), anyInt(), anyString(), anyString());
+
+            long start = System.nanoTime();
+            for (int i = 0; i < JOBS; i++) {
+                jobs.submit(NotificationJob.chatMessage(i % 100, "room", 1, "sender", "message " + i));
+            }
+            long queued = System.nanoTime();
+            assertTrue(done.await(2, TimeUnit.MINUTES), "jobs did not drain");
+            long drained = System.nanoTime();
+
+            System.out.printf("%2d consumers %-10s submit %6.1f ms  drain %7.1f ms  %7.0f jobs/s%n",
+                    consumers, ackMode, (queued - start) / 1e6, (drained - start) / 1e6,
+                    JOBS / ((drained - start) / 1e9));
+        }
+    }
+}
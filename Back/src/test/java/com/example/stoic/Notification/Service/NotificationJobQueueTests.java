@@ -0,0 +1,154 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Model.NotificationType;
+import com.example.stoic.Room.Service.WebSockets.ChatNotificationFanout;
+import com.example.stoic.User.Repo.UserRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jms.JmsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jms.activemq.ActiveMQAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Jobs go through an embedded ActiveMQ broker as JSON and come out on a
+ * listener built from NotificationQueueConfig.
+ */
+class NotificationJobQueueTests {
+
+    @Test
+    void submittedJobsReachTheConsumerAndAreDispatched() {
+        try (ConfigurableApplicationContext context = startNode("jobs-roundtrip", "2-2", "client")) {
+            NotificationJobQueue jobs = context.getBean(NotificationJobQueue.class);
+            ChatNotificationFanout chatFanout = context.getBean(ChatNotificationFanout.class);
+            NotificationService notificationService = context.getBean(NotificationService.class);
+            UserRepo userRepo = context.getBean(UserRepo.class);
+            when(userRepo.getReferenceById(anyInt())).thenReturn(null);
+
+            jobs.submit(NotificationJob.chatMessage(4, "Stoics", 9, "marcus", "hello"));
+            jobs.submit(NotificationJob.coalesced(List.of(1, 2), NotificationType.USER_JOINED, "room:4",
+                    "marcus", "New User Joined", "joined the room: Stoics"));
+            jobs.submit(NotificationJob.direct(3, "Hi", "there", NotificationType.COMMENT_ADDED));
+
+            verify(chatFanout, timeout(5000)).notifyMembers(4, "Stoics", 9, "marcus", "hello");
+            verify(notificationService, timeout(5000).times(2)).createCoalescedNotification(any(),
+                    eq(NotificationType.USER_JOINED), eq("room:4"), eq("marcus"), eq("New User Joined"),
+                    eq("joined the room: Stoics"));
+            verify(notificationService, timeout(5000)).sendNotificationToUser(3, "Hi", "there",
+                    NotificationType.COMMENT_ADDED);
+        }
+    }
+
+    @Test
+    void aJobThatThrowsIsRedelivered() {
+        try (ConfigurableApplicationContext context = startNode("jobs-redelivery", "1-1", "transacted")) {
+            NotificationService notificationService = context.getBean(NotificationService.class);
+            doThrow(new RuntimeException("database down")).doNothing().when(notificationService)
+                    .sendNotificationToUser(3, "Hi", "there", NotificationType.COMMENT_ADDED);
+
+            context.getBean(NotificationJobQueue.class)
+                    .submit(NotificationJob.direct(3, "Hi", "there", NotificationType.COMMENT_ADDED));
+
+            verify(notificationService, timeout(10_000).times(2)).sendNotificationToUser(3, "Hi", "there",
+                    NotificationType.COMMENT_ADDED);
+        }
+    }
+
+    @Test
+    void chatJobsForOneRoomRunInSendOrder() throws InterruptedException {
+        try (ConfigurableApplicationContext context = startNode("jobs-order", "4-4", "transacted")) {
+            int jobs = 200;
+            List<String> seen = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch done = new CountDownLatch(jobs);
+            doAnswer(inv -> {
+                seen.add(inv.getArgument(4));
+                done.countDown();
+                return null;
+            }).when(context.getBean(ChatNotificationFanout.class))
+                    .notifyMembers(anyInt(), anyString(), anyInt(), anyString(), anyString());
+
+            NotificationJobQueue queue = context.getBean(NotificationJobQueue.class);
+            List<String> sent = new ArrayList<>();
+            for (int i = 0; i < jobs; i++) {
+                sent.add("message " + i);
+                queue.submit(NotificationJob.chatMessage(4, "Stoics", 9, "marcus", "message " + i));
+            }
+
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            assertEquals(sent, seen);
+        }
+    }
+
+    /**
+     * A node with the job queue on, connected to an in-VM broker named
+     * {@code broker}, with mocked notification dependencies.
+     */
+    static ConfigurableApplicationContext startNode(String broker, String concurrency, String ackMode) {
+        return new SpringApplicationBuilder(QueueNode.class)
+                .web(WebApplicationType.NONE)
+                // as arguments, so they win over application.properties
+                .run("--spring.activemq.broker-url=vm://" + broker + "?broker.persistent=false&broker.useJmx=false",
+                        "--stoic.notifications.queue.enabled=true",
+                        "--stoic.notifications.queue.concurrency=" + concurrency,
+                        "--stoic.notifications.queue.ack-mode=" + ackMode);
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({ PropertyPlaceholderAutoConfiguration.class, JacksonAutoConfiguration.class,
+            ActiveMQAutoConfiguration.class, JmsAutoConfiguration.class })
+    @Import({ NotificationQueueConfig.class, NotificationJobQueue.class })
+    static class QueueNode {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        NotificationService notificationService() {
+            return mock(NotificationService.class);
+        }
+
+        @Bean
+        ChatNotificationFanout chatNotificationFanout() {
+            return mock(ChatNotificationFanout.class);
+        }
+
+        @Bean
+        UserRepo userRepo() {
+            return mock(UserRepo.class);
+        }
+
+        @Bean
+        NotificationPreferences notificationPreferences() {
+            return mock(NotificationPreferences.class);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.stoic.Notification.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationOutboxTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NotificationOutbox outbox(boolean enabled) {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        return new NotificationOutbox(jdbcTemplate, transactionTemplate, messagingTemplate, new ObjectMapper(),
+                enabled, 2, meterRegistry);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void writesRowsInTheCallersTransactionAndPublishesNothingBeforeCommit() {
+        NotificationOutbox outbox = outbox(true);
+        TransactionSynchronizationManager.initSynchronization();
+
+        outbox.enqueue("/topic/notifications/7/read", List.of(1, 2, 3));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        verify(transactionTemplate, never()).execute(any());
+        verify(messagingTemplate, never()).send(anyString(), any(Message.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relayPublishesClaimedRowsWithTheirIdThenDeletesThem() {
+        NotificationOutbox outbox = outbox(true);
+        LocalDateTime created = LocalDateTime.now().minusSeconds(2);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2)))
+                .thenReturn(List.of(
+                        new Object[] { 10L, "/topic/notifications/7", "{\"id\":5}", created },
+                        new Object[] { 11L, "/topic/notifications/8", "{\"id\":6}", created }))
+                .thenReturn(List.of());
+
+        outbox.drain();
+
+        ArgumentCaptor<Message<byte[]>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/notifications/7"), sent.capture());
+        assertEquals("{\"id\":5}", new String(sent.getValue().getPayload(), StandardCharsets.UTF_8));
+        assertEquals("10", SimpMessageHeaderAccessor.wrap(sent.getValue())
+                .getFirstNativeHeader(NotificationOutbox.OUTBOX_ID_HEADER));
+        verify(messagingTemplate).send(eq("/topic/notifications/8"), any(Message.class));
+        verify(jdbcTemplate).batchUpdate(eq("DELETE FROM notification_outbox WHERE id = ?"), anyList());
+        assertEquals(2.0, meterRegistry.counter("notifications.outbox.published").count());
+        assertEquals(0.0, meterRegistry.get("notifications.outbox.lag").gauge().value());
+    }
+
+    @Test
+    void disabledOutboxSendsDirectlyAfterCommit() {
+        NotificationOutbox outbox = outbox(false);
+        TransactionSynchronizationManager.initSynchronization();
+
+        outbox.enqueue("/topic/notifications/7/read-all", "all-read");
+        verify(messagingTemplate, never()).send(anyString(), any(Message.class));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(messagingTemplate, timeout(1000)).send(eq("/topic/notifications/7/read-all"), any(Message.class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
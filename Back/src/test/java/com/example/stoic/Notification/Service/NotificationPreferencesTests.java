@@ -0,0 +1,66 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Model.NotificationPreference;
+import com.example.stoic.Notification.Model.NotificationType;
+import com.example.stoic.Notification.Repo.NotificationPreferenceRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationPreferencesTests {
+
+    private final NotificationPreferenceRepo repo = mock(NotificationPreferenceRepo.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NotificationPreferences preferences = new NotificationPreferences(repo, 100, 60_000, meterRegistry);
+
+    @Test
+    void loadsManyUsersInOneQueryAndCachesUsersWithoutPreferences() {
+        when(repo.findWithMutedRooms(anyCollection())).thenReturn(List.of(
+                new NotificationPreference(2, NotificationPreference.bit(NotificationType.MESSAGE), Set.of()),
+                new NotificationPreference(3, 0, Set.of(40, 7))));
+
+        preferences.load(List.of(1, 2, 3));
+
+        assertTrue(preferences.allows(1, NotificationType.MESSAGE, 7));
+        assertFalse(preferences.allows(2, NotificationType.MESSAGE, 7));
+        assertTrue(preferences.allows(2, NotificationType.POST_LIKED, null));
+        assertFalse(preferences.allows(3, NotificationType.MESSAGE, 7));
+        assertTrue(preferences.allows(3, NotificationType.MESSAGE, 8));
+        assertTrue(preferences.allows(3, NotificationType.SYSTEM_UPDATE, null));
+        verify(repo, times(1)).findWithMutedRooms(anyCollection());
+
+        assertEquals(2.0, meterRegistry.counter("notifications.preferences.writes_avoided",
+                "type", "MESSAGE").count());
+    }
+
+    @Test
+    void updateStoresTheBitsetAndReloadsTheUser() {
+        when(repo.findById(5)).thenReturn(Optional.empty());
+        when(repo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(repo.findWithMutedRooms(anyCollection())).thenReturn(List.of());
+        assertTrue(preferences.allows(5, NotificationType.COMMENT_LIKED, null));
+
+        NotificationPreference saved = preferences.update(5,
+                List.of(NotificationType.COMMENT_LIKED, NotificationType.POST_LIKED), List.of(9));
+        when(repo.findWithMutedRooms(anyCollection())).thenReturn(List.of(saved));
+
+        assertEquals(Set.of(NotificationType.COMMENT_LIKED, NotificationType.POST_LIKED),
+                NotificationPreferences.mutedTypes(saved));
+        assertFalse(preferences.allows(5, NotificationType.COMMENT_LIKED, null));
+        assertFalse(preferences.allows(5, NotificationType.USER_JOINED, 9));
+        verify(repo, times(2)).findWithMutedRooms(anyCollection());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Model.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationRetentionJobTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NotificationRetentionJob job(String ttls) {
+        return new NotificationRetentionJob(jdbcTemplate, true, ttls, 0, 100, 0, meterRegistry);
+    }
+
+    @Test
+    void parsesPerTypeTtlsOverTheDefault() {
+        Map<NotificationType, Integer> ttls = NotificationRetentionJob.parseTtls("MESSAGE:7, SYSTEM_UPDATE:90", 30);
+
+        assertEquals(7, ttls.get(NotificationType.MESSAGE));
+        assertEquals(90, ttls.get(NotificationType.SYSTEM_UPDATE));
+        assertEquals(30, ttls.get(NotificationType.POST_LIKED));
+        assertThrows(IllegalArgumentException.class, () -> NotificationRetentionJob.parseTtls("MESSAGE", 30));
+    }
+
+    @Test
+    void deletesInChunksUntilAShortOne() {
+        when(jdbcTemplate.update(anyString(), eq("MESSAGE"), any(), eq(100))).thenReturn(100, 100, 42);
+
+        long deleted = job("MESSAGE:7").purge(NotificationType.MESSAGE, LocalDateTime.now());
+
+        assertEquals(242, deleted);
+        verify(jdbcTemplate, times(3)).update(anyString(), eq("MESSAGE"), any(), eq(100));
+        assertEquals(242.0, meterRegistry.counter("notifications.retention.purged", "type", "MESSAGE").count());
+        assertEquals(3, meterRegistry.timer("notifications.retention.chunk").count());
+    }
+
+    @Test
+    void skipsTypesWithoutTtl() {
+        when(jdbcTemplate.update(anyString(), anyString(), any(), eq(100))).thenReturn(0);
+
+        job("MESSAGE:7").purge();
+
+        verify(jdbcTemplate).update(anyString(), eq("MESSAGE"), any(), eq(100));
+        verify(jdbcTemplate, never()).update(anyString(), eq("SYSTEM_UPDATE"), any(), eq(100));
+    }
+}
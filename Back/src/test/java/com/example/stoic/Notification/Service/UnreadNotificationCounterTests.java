@@ -0,0 +1,74 @@
+package com.example.stoic.Notification.Service;
+
+import com.example.stoic.Notification.Repo.NotificationRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadNotificationCounterTests {
+
+    private final NotificationRepo repo = mock(NotificationRepo.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UnreadNotificationCounter counter =
+            new UnreadNotificationCounter(repo, messagingTemplate, 100, meterRegistry);
+
+    @Test
+    void seedsOnceThenAppliesDeltasAndPushesThem() {
+        when(repo.countUnreadNotificationsByUserId(7)).thenReturn(3);
+
+        assertEquals(3, counter.get(7));
+        counter.increment(List.of(7, 7, 8)); // 8 was never read, so nothing to update
+        counter.adjust(7, -1);
+
+        assertEquals(4, counter.get(7));
+        verify(repo, times(1)).countUnreadNotificationsByUserId(7);
+        verify(messagingTemplate).convertAndSend("/topic/notifications/7",
+                (Object) Map.of("type", UnreadNotificationCounter.UNREAD_COUNT, "unreadCount", 4));
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/notifications/8"), any(Object.class));
+    }
+
+    @Test
+    void neverGoesNegative() {
+        when(repo.countUnreadNotificationsByUserId(7)).thenReturn(1);
+        counter.get(7);
+        counter.adjust(7, -5);
+        assertEquals(0, counter.get(7));
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        when(repo.countUnreadNotificationsByUserId(anyInt())).thenReturn(2);
+        counter.get(7);
+        counter.get(8);
+        when(repo.countUnreadByUserIds(any())).thenReturn(List.<Object[]>of(new Object[] { 7, 5L }));
+
+        counter.reconcile();
+
+        assertEquals(5, counter.get(7));
+        assertEquals(0, counter.get(8)); // no unread rows left
+        assertEquals(2.0, meterRegistry.get("notifications.unread.reconcile.corrections").counter().count());
+    }
+
+    @Test
+    void invalidateAllReseedsFromTheDb() {
+        when(repo.countUnreadNotificationsByUserId(7)).thenReturn(1, 2);
+
+        assertEquals(1, counter.get(7));
+        counter.invalidateAll(); // e.g. a broadcast just added a row for everyone
+        assertEquals(2, counter.get(7));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.stoic.Post.Service;
+
+import com.example.stoic.Post.Model.Post;
+import com.example.stoic.Post.Repo.PostRepo;
+import com.example.stoic.Room.Model.Room;
+import com.example.stoic.Room.Model.RoomType;
+import com.example.stoic.Room.Repo.RoomRepo;
+import com.example.stoic.User.Model.User;
+import com.example.stoic.User.Model.UserRole;
+import com.example.stoic.User.Repo.UserRepo;
+import com.example.stoic.common.LikeCounterBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Many users liking one post at once: like_count updated in each like's
+ * transaction vs buffered in LikeCounterBuffer. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "stoic.likes.hot-counters.enabled=true")
+class LikeContentionBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int LIKES_PER_THREAD = 200;
+
+    @Autowired
+    private PostRepo postRepo;
+
+    @Autowired
+    private RoomRepo roomRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LikeCounterBuffer likeCounters;
+
+    private Post post;
+    private List<User> likers;
+
+    @BeforeEach
+    void setUp() {
+        likers = new ArrayList<>(THREADS * LIKES_PER_THREAD);
+        for (int i = 0; i < THREADS * LIKES_PER_THREAD; i++) {
+            User user = new User();
+            user.setUsername("liker" + i);
+            user.setEmail("liker" + i + "@example.com");
+            user.setPassword("x");
+            user.setAge(30);
+            user.setGender("n/a");
+            user.setUserRole(UserRole.REG);
+            likers.add(user);
+        }
+        likers = userRepo.saveAll(likers);
+
+        Room room = new Room();
+        room.setRoomName("bench");
+        room.setOwnerId(likers.get(0).getUserId());
+        room.setType(RoomType.PUBLIC);
+        room.setCreatedAt(new Date());
+        room = roomRepo.save(room);
+
+        Post p = new Post();
+        p.setTitle("hot");
+        p.setContent("everyone likes this");
+        p.setDate(LocalDateTime.now());
+        p.setAuthor(likers.get(0));
+        p.setRoom(room);
+        post = postRepo.save(p);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM post_likes");
+        postRepo.deleteAllInBatch();
+        roomRepo.deleteAllInBatch();
+        userRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void rowUpdatesVersusBufferedCounters() throws Exception {
+        PostServiceImpl direct = new PostServiceImpl(postRepo,
+                new LikeCounterBuffer(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry(), false));
+        run("row update", direct);
+
+        jdbcTemplate.update("DELETE FROM post_likes");
+        jdbcTemplate.update("UPDATE post SET like_count = 0 WHERE id = ?", post.getId());
+
+        run("buffered", new PostServiceImpl(postRepo, likeCounters));
+    }
+
+    private void run(String label, PostServiceImpl service) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            List<User> mine = likers.subList(t * LIKES_PER_THREAD, (t + 1) * LIKES_PER_THREAD);
+            results.add(pool.submit(() -> {
+                for (User user : mine) {
+                    transactionTemplate.executeWithoutResult(
+                            status -> service.toggleLike(post.getId(), user.getUserId()));
+                }
+            }));
+        }
+        for (Future<?> f : results) {
+            f.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        likeCounters.flush();
+
+        int likes = THREADS * LIKES_PER_THREAD;
+        assertEquals(likes, postRepo.findLikeCount(post.getId()));
+        System.out.printf("%-10s %8.0f likes/s on one post (%d threads)%n", label, likes / seconds, THREADS);
+    }
+}
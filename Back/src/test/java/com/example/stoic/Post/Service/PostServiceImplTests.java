@@ -0,0 +1,126 @@
+package com.example.stoic.Post.Service;
+
+import com.example.stoic.Post.Repo.PostRepo;
+import com.example.stoic.common.CursorPage;
+import com.example.stoic.common.LikeCounterBuffer;
+import com.example.stoic.common.LikeToggle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostServiceImplTests {
+
+    private final PostRepo postRepo = mock(PostRepo.class);
+    private final PostServiceImpl postService = new PostServiceImpl(postRepo,
+            new LikeCounterBuffer(mock(JdbcTemplate.class), transactionTemplate(), new SimpleMeterRegistry(), false));
+
+    @Test
+    void likingBumpsTheCounterBeforeInserting() {
+        when(postRepo.likeExists(7, 3)).thenReturn(0L);
+        when(postRepo.adjustLikeCount(7, 1)).thenReturn(1);
+        when(postRepo.insertLike(7, 3)).thenReturn(1);
+        when(postRepo.findLikeCount(7)).thenReturn(42);
+
+        assertEquals(new LikeToggle(true, 42), postService.toggleLike(7, 3));
+
+        InOrder order = inOrder(postRepo);
+        order.verify(postRepo).adjustLikeCount(7, 1);
+        order.verify(postRepo).insertLike(7, 3);
+        verify(postRepo, never()).getReferenceById(7);
+    }
+
+    @Test
+    void unlikingDeletesAndDecrements() {
+        when(postRepo.likeExists(7, 3)).thenReturn(1L);
+        when(postRepo.deleteLike(7, 3)).thenReturn(1);
+        when(postRepo.findLikeCount(7)).thenReturn(41);
+
+        assertEquals(new LikeToggle(false, 41), postService.toggleLike(7, 3));
+        verify(postRepo).adjustLikeCount(7, -1);
+    }
+
+    @Test
+    void losingALikeRaceUndoesTheIncrement() {
+        when(postRepo.likeExists(7, 3)).thenReturn(0L);
+        when(postRepo.adjustLikeCount(7, 1)).thenReturn(1);
+        when(postRepo.insertLike(7, 3)).thenReturn(0);
+        when(postRepo.findLikeCount(7)).thenReturn(5);
+
+        assertEquals(new LikeToggle(true, 5), postService.toggleLike(7, 3));
+        verify(postRepo).adjustLikeCount(7, -1);
+    }
+
+    @Test
+    void missingPostsAreReported() {
+        when(postRepo.likeExists(7, 3)).thenReturn(0L);
+
+        assertNull(postService.toggleLike(7, 3));
+        verify(postRepo, never()).insertLike(7, 3);
+    }
+
+    @Test
+    void hotCounterModeBuffersTheDeltaInsteadOfUpdatingTheRow() {
+        LikeCounterBuffer counters = new LikeCounterBuffer(mock(JdbcTemplate.class), transactionTemplate(), new SimpleMeterRegistry(),
+                true);
+        PostServiceImpl buffered = new PostServiceImpl(postRepo, counters);
+        when(postRepo.findLikeCount(7)).thenReturn(10);
+        when(postRepo.likeExists(7, 3)).thenReturn(0L);
+        when(postRepo.insertLike(7, 3)).thenReturn(1);
+        counters.add(LikeCounterBuffer.Target.POST, 7, 4); // other likes not flushed yet
+
+        assertEquals(new LikeToggle(true, 15), buffered.toggleLike(7, 3));
+        assertEquals(5, counters.pending(LikeCounterBuffer.Target.POST, 7));
+        verify(postRepo, never()).adjustLikeCount(7, 1);
+    }
+
+    @Test
+    void feedPageMarksTheViewersLikesAndHandsBackACursor() {
+        LocalDateTime date = LocalDateTime.of(2026, 5, 1, 12, 0, 30);
+        when(postRepo.findFeedPage(eq(4), any(), anyInt(), eq(Limit.of(2)))).thenReturn(List.of(
+                new PostSummary(9, "a", "a", 1, "marcus", date, 3, 0),
+                new PostSummary(8, "b", "b", 1, "marcus", date, 0, 2)));
+        when(postRepo.findLikedPostIds(eq(5), any())).thenReturn(List.of(8));
+
+        CursorPage<PostSummary> page = postService.getFeedPage(4, null, 2, 5);
+
+        assertFalse(page.getItems().get(0).isLikedByMe());
+        assertTrue(page.getItems().get(1).isLikedByMe());
+        assertEquals("2026-05-01T12:00:30,8", page.getNextCursor());
+
+        postService.getFeedPage(4, page.getNextCursor(), 2, null);
+        verify(postRepo).findFeedPage(4, date, 8, Limit.of(2));
+    }
+
+    @Test
+    void shortFeedPageIsTheLast() {
+        when(postRepo.findFeedPage(eq(4), any(), anyInt(), any())).thenReturn(List.of(
+                new PostSummary(9, "a", "a", 1, "marcus", LocalDateTime.now(), 0, 0)));
+
+        assertNull(postService.getFeedPage(4, null, 20, null).getNextCursor());
+        verify(postRepo, never()).findLikedPostIds(anyInt(), any());
+    }
+
+    private static TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(mock(PlatformTransactionManager.class));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.stoic.Reminder.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReminderSchedulerTests {
+
+    private static final ZoneId PARIS = ZoneId.of("Europe/Paris");
+
+    private static long at(String dateTime) {
+        return ZonedDateTime.parse(dateTime).toInstant().toEpochMilli();
+    }
+
+    @Test
+    void nextOccurrenceIsLaterTodayOrTomorrow() {
+        LocalTime eightThirtyPm = LocalTime.of(20, 30);
+
+        assertEquals(at("2026-03-10T20:30+01:00[Europe/Paris]"),
+                ReminderScheduler.nextOccurrence(eightThirtyPm, PARIS, at("2026-03-10T09:00+01:00[Europe/Paris]")));
+        assertEquals(at("2026-03-11T20:30+01:00[Europe/Paris]"),
+                ReminderScheduler.nextOccurrence(eightThirtyPm, PARIS, at("2026-03-10T20:30+01:00[Europe/Paris]")));
+    }
+
+    @Test
+    void nextOccurrenceFollowsTheUsersZoneAcrossDst() {
+        // clocks go forward at 02:00 on 2026-03-29; 02:30 does not exist that day
+        assertEquals(at("2026-03-29T03:30+02:00[Europe/Paris]"),
+                ReminderScheduler.nextOccurrence(LocalTime.of(2, 30), PARIS, at("2026-03-29T00:00+01:00[Europe/Paris]")));
+        // the day after, 20:30 is an hour earlier in UTC
+        assertEquals(at("2026-03-30T18:30Z"),
+                ReminderScheduler.nextOccurrence(LocalTime.of(20, 30), PARIS, at("2026-03-29T20:30+02:00[Europe/Paris]")));
+    }
+}
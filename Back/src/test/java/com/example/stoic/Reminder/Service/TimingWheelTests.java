@@ -0,0 +1,87 @@
+package com.example.stoic.Reminder.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTests {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void firesEachTimerOnItsTickAcrossLevels() {
+        long start = 1_700_000_000_000L;
+        TimingWheel wheel = new TimingWheel(TICK, start);
+        long[] offsets = { 1, 255, 256, 257, 65_535, 65_536, 70_000, 16_777_216 + 5 };
+        for (int i = 0; i < offsets.length; i++) {
+            wheel.schedule(i, start + offsets[i] * TICK);
+        }
+
+        for (int i = 0; i < offsets.length; i++) {
+            long deadline = start + offsets[i] * TICK;
+            assertEquals(List.of(), wheel.advance(deadline - TICK), "early at offset " + offsets[i]);
+            assertEquals(List.of(new TimingWheel.Expired(i, deadline)), wheel.advance(deadline));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvance() {
+        TimingWheel wheel = new TimingWheel(TICK, 10_000);
+        wheel.schedule(1, 5_000);
+
+        assertEquals(List.of(new TimingWheel.Expired(1, 5_000)), wheel.advance(10_000));
+    }
+
+    @Test
+    void cancelAndRescheduleReplaceTheTimer() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        wheel.schedule(1, 10 * TICK);
+        wheel.schedule(2, 10 * TICK);
+        wheel.schedule(2, 20 * TICK);
+
+        assertTrue(wheel.cancel(1));
+        assertFalse(wheel.cancel(1));
+        assertEquals(List.of(), wheel.advance(15 * TICK));
+        assertEquals(List.of(new TimingWheel.Expired(2, 20 * TICK)), wheel.advance(20 * TICK));
+    }
+
+    @Test
+    void matchesASortedScheduleForRandomTimers() {
+        Random random = new Random(42);
+        long now = 0;
+        TimingWheel wheel = new TimingWheel(TICK, now);
+        Map<Long, Long> expected = new HashMap<>();
+        for (long id = 0; id < 20_000; id++) {
+            long deadline = (1 + random.nextInt(200_000)) * TICK;
+            wheel.schedule(id, deadline);
+            expected.put(id, deadline);
+        }
+        for (long id = 0; id < 20_000; id += 7) {
+            wheel.cancel(id);
+            expected.remove(id);
+        }
+
+        List<TimingWheel.Expired> fired = new ArrayList<>();
+        while (now < 200_001 * TICK) {
+            now += (1 + random.nextInt(5_000)) * TICK;
+            for (TimingWheel.Expired e : wheel.advance(now)) {
+                assertTrue(e.deadlineMillis() <= now, "fired early");
+                assertTrue(e.deadlineMillis() > now - 5_000 * TICK, "fired late");
+                fired.add(e);
+            }
+        }
+        assertEquals(expected.size(), fired.size());
+        for (TimingWheel.Expired e : fired) {
+            assertEquals(expected.get(e.id()), e.deadlineMillis());
+        }
+    }
+}
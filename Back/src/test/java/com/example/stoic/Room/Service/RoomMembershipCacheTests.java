@@ -0,0 +1,55 @@
+package com.example.stoic.Room.Service;
+
+import com.example.stoic.Room.Repo.RoomRepo;
+import com.example.stoic.Room.dto.RoomMemberDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoomMembershipCacheTests {
+
+    private final RoomRepo roomRepo = mock(RoomRepo.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void servesRepeatedLookupsFromMemoryUntilInvalidated() {
+        when(roomRepo.findMembersByRoomId(1)).thenReturn(List.of(new RoomMemberDTO(10, "ana")));
+        RoomMembershipCache cache = new RoomMembershipCache(roomRepo, 10, meterRegistry);
+
+        assertEquals("ana", cache.get(1).username(0));
+        assertEquals(10, cache.get(1).userId(0));
+        verify(roomRepo, times(1)).findMembersByRoomId(1);
+
+        cache.invalidate(1);
+        cache.get(1);
+        verify(roomRepo, times(2)).findMembersByRoomId(1);
+
+        assertEquals(1.0, meterRegistry.get("room.members.cache").tag("result", "hit").counter().count());
+        assertEquals(2.0, meterRegistry.get("room.members.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedRoom() {
+        when(roomRepo.findMembersByRoomId(anyInt())).thenReturn(List.of());
+        RoomMembershipCache cache = new RoomMembershipCache(roomRepo, 2, meterRegistry);
+
+        cache.get(1);
+        cache.get(2);
+        cache.get(1); // 2 is now the eldest
+        cache.get(3);
+
+        assertEquals(2, cache.size());
+        cache.get(1);
+        verify(roomRepo, times(1)).findMembersByRoomId(1);
+        cache.get(2);
+        verify(roomRepo, times(2)).findMembersByRoomId(2);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.stoic.Room.Service.WebSockets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExactDestinationSubscriptionRegistryTests {
+
+    private final ExactDestinationSubscriptionRegistry registry = new ExactDestinationSubscriptionRegistry();
+
+    @Test
+    void findsSubscribersByExactDestination() {
+        registry.registerSubscription(subscribe("s1", "sub-0", "/topic/rooms/1"));
+        registry.registerSubscription(subscribe("s1", "sub-1", "/topic/rooms/1"));
+        registry.registerSubscription(subscribe("s2", "sub-0", "/topic/rooms/1"));
+        registry.registerSubscription(subscribe("s2", "sub-1", "/topic/notifications/7"));
+
+        MultiValueMap<String, String> found = registry.findSubscriptions(message("/topic/rooms/1"));
+        assertEquals(List.of("sub-0", "sub-1"), found.get("s1"));
+        assertEquals(List.of("sub-0"), found.get("s2"));
+        assertTrue(registry.findSubscriptions(message("/topic/rooms/10")).isEmpty());
+    }
+
+    @Test
+    void unsubscribeAndDisconnectRemoveOnlyThatSession() {
+        registry.registerSubscription(subscribe("s1", "sub-0", "/topic/rooms/1"));
+        registry.registerSubscription(subscribe("s1", "sub-1", "/topic/notifications/7"));
+        registry.registerSubscription(subscribe("s2", "sub-0", "/topic/rooms/1"));
+
+        registry.unregisterSubscription(unsubscribe("s2", "sub-0"));
+        assertEquals(List.of("s1"), List.copyOf(registry.findSubscriptions(message("/topic/rooms/1")).keySet()));
+
+        registry.unregisterAllSubscriptions("s1");
+        assertTrue(registry.findSubscriptions(message("/topic/rooms/1")).isEmpty());
+        assertEquals(0, registry.getDestinationCount());
+    }
+
+    @Test
+    void patternSubscriptionsStillMatch() {
+        registry.registerSubscription(subscribe("s1", "sub-0", "/topic/rooms/*"));
+        registry.registerSubscription(subscribe("s2", "sub-0", "/topic/rooms/1"));
+
+        MultiValueMap<String, String> found = registry.findSubscriptions(message("/topic/rooms/1"));
+        assertEquals(2, found.size());
+
+        registry.unregisterAllSubscriptions("s1");
+        assertEquals(1, registry.findSubscriptions(message("/topic/rooms/1")).size());
+    }
+
+    static Message<byte[]> subscribe(String session, String subscription, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(session);
+        accessor.setSubscriptionId(subscription);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    static Message<byte[]> unsubscribe(String session, String subscription) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        accessor.setSessionId(session);
+        accessor.setSubscriptionId(subscription);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    static Message<byte[]> message(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
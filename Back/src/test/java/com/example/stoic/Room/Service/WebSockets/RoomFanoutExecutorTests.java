@@ -0,0 +1,97 @@
+package com.example.stoic.Room.Service.WebSockets;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomFanoutExecutorTests {
+
+    @Test
+    void jobsForOneRoomRunInSubmissionOrder() throws Exception {
+        RoomFanoutExecutor executor = new RoomFanoutExecutor(4, 16, new SimpleMeterRegistry());
+        int jobs = 1_000;
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(jobs);
+
+        for (int i = 0; i < jobs; i++) {
+            int n = i;
+            executor.execute(7, () -> {
+                seen.add(n);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < jobs; i++) {
+            assertEquals(i, seen.get(i));
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void differentRoomsRunInParallel() throws Exception {
+        RoomFanoutExecutor executor = new RoomFanoutExecutor(2, 16, new SimpleMeterRegistry());
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (int roomId : new int[] { 0, 1 }) {
+            executor.execute(roomId, () -> {
+                bothRunning.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void reservedHandOffDoesNotBlockWhenTheStripeIsFull() throws Exception {
+        RoomFanoutExecutor executor = new RoomFanoutExecutor(1, 1, new SimpleMeterRegistry());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(1, () -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        executor.reserve(1); // the only slot; a plain execute would now block
+        CountDownLatch ran = new CountDownLatch(1);
+        executor.reserved(1).execute(ran::countDown);
+        assertEquals(1, executor.queueDepth());
+
+        release.countDown();
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    void releasedSlotCanBeTakenAgain() throws Exception {
+        RoomFanoutExecutor executor = new RoomFanoutExecutor(1, 1, new SimpleMeterRegistry());
+        executor.reserve(1);
+        executor.release(1); // e.g. the message failed to save
+
+        CountDownLatch ran = new CountDownLatch(1);
+        executor.execute(1, ran::countDown); // would block forever if the slot leaked
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.stoic.Room.Service.WebSockets;
+
+import com.example.stoic.User.Model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomPresenceTrackerTests {
+
+    private final RoomPresenceTracker tracker = new RoomPresenceTracker(new SimpleMeterRegistry());
+
+    @Test
+    void tracksViewersUntilTheirLastSubscriptionGoes() {
+        tracker.onSubscribe(new SessionSubscribeEvent(this, subscribe("s1", "sub-0", "/topic/rooms/5", 7, "7")));
+        tracker.onSubscribe(new SessionSubscribeEvent(this, subscribe("s2", "sub-0", "/topic/rooms/5", 7, null)));
+        assertTrue(tracker.isViewing(5, 7));
+        assertFalse(tracker.isViewing(5, 8));
+        assertFalse(tracker.isViewing(6, 7));
+
+        tracker.onUnsubscribe(new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, "s1", "sub-0")));
+        assertTrue(tracker.isViewing(5, 7)); // second tab still open
+
+        tracker.onDisconnect(new SessionDisconnectEvent(this, frame(StompCommand.DISCONNECT, "s2", null),
+                "s2", CloseStatus.NORMAL));
+        assertFalse(tracker.isViewing(5, 7));
+    }
+
+    @Test
+    void ignoresOtherDestinationsAndSubscriptionsWithoutUser() {
+        tracker.onSubscribe(new SessionSubscribeEvent(this, subscribe("s1", "sub-0", "/topic/notifications/7", 7, "7")));
+        tracker.onSubscribe(new SessionSubscribeEvent(this, subscribe("s1", "sub-1", "/topic/rooms/5", null, "7")));
+        assertFalse(tracker.isViewing(5, 7));
+    }
+
+    @Test
+    void aUserIdHeaderCannotMarkSomeoneElsePresent() {
+        tracker.onSubscribe(new SessionSubscribeEvent(this, subscribe("s1", "sub-0", "/topic/rooms/5", 8, "7")));
+        assertFalse(tracker.isViewing(5, 7));
+        assertFalse(tracker.isViewing(5, 8));
+    }
+
+    // sessionUser is the logged-in user the handshake stored; header is what the client claims
+    private static Message<byte[]> subscribe(String session, String subscription, String destination,
+            Integer sessionUser, String header) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(session);
+        accessor.setSubscriptionId(subscription);
+        accessor.setDestination(destination);
+        Map<String, Object> attributes = new HashMap<>();
+        if (sessionUser != null) {
+            User user = new User();
+            user.setUserId(sessionUser);
+            attributes.put(SessionUserHandshakeHandler.SESSION_USER, user);
+        }
+        accessor.setSessionAttributes(attributes);
+        if (header != null) {
+            accessor.setNativeHeader("userId", header);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String session, String subscription) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(session);
+        if (subscription != null) {
+            accessor.setSubscriptionId(subscription);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.stoic.Room.Service.WebSockets;
+
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.TransportConnector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketMessagingAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two application nodes share one embedded ActiveMQ broker through the STOMP
+ * relay; a message sent on one node must reach a client connected to the other.
+ */
+class StompBrokerRelayTests {
+
+    private static BrokerService broker;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void start() throws Exception {
+        broker = new BrokerService();
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        TransportConnector stomp = broker.addConnector("stomp://localhost:0");
+        broker.start();
+        int stompPort = stomp.getConnectUri().getPort();
+
+        nodeA = startNode(stompPort);
+        nodeB = startNode(stompPort);
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (broker != null) {
+            broker.stop();
+        }
+    }
+
+    @Test
+    void roomBroadcastOnOneNodeReachesSubscriberOnAnother() throws Exception {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        StompSession session = connect(nodeB, "ana");
+        session.subscribe("/topic/rooms/1", collector(received));
+
+        String message = sendUntilReceived(received,
+                () -> nodeA.getBean(SimpMessagingTemplate.class).convertAndSend("/topic/rooms/1", "hello"));
+        assertEquals("hello", message);
+        session.disconnect();
+    }
+
+    @Test
+    void userDestinationOnOneNodeReachesUserConnectedToAnother() throws Exception {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        StompSession session = connect(nodeB, "bob");
+        session.subscribe("/user/queue/notifications", collector(received));
+
+        String message = sendUntilReceived(received,
+                () -> nodeA.getBean(SimpMessagingTemplate.class)
+                        .convertAndSendToUser("bob", "/queue/notifications", "ping"));
+        assertEquals("ping", message);
+        session.disconnect();
+    }
+
+    /**
+     * The relay forwards SUBSCRIBE frames asynchronously, so keep sending until
+     * the subscription is live on the broker.
+     */
+    private static String sendUntilReceived(BlockingQueue<String> received, Runnable send) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (System.nanoTime() < deadline) {
+            send.run();
+            String message = received.poll(250, TimeUnit.MILLISECONDS);
+            if (message != null) {
+                return message;
+            }
+        }
+        throw new AssertionError("message did not cross nodes within 20s");
+    }
+
+    private static StompSession connect(ConfigurableApplicationContext node, String username) throws Exception {
+        int port = ((ServletWebServerApplicationContext) node).getWebServer().getPort();
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new StringMessageConverter());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.setLogin(username);
+        return client.connectAsync("ws://localhost:" + port + "/ws-chat/websocket",
+                new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() { })
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private static StompFrameHandler collector(BlockingQueue<String> received) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((String) payload);
+            }
+        };
+    }
+
+    private static ConfigurableApplicationContext startNode(int stompPort) {
+        return new SpringApplicationBuilder(RelayNode.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "spring.config.location=optional:classpath:/none/",
+                        "server.port=0",
+                        "UserIphttp=http://localhost:*",
+                        "UserIPexp=exp://localhost:*",
+                        "spring.websocket.stomp.relay.enabled=true",
+                        "spring.websocket.stomp.relay.port=" + stompPort)
+                .run();
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({
+            PropertyPlaceholderAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class,
+            WebSocketMessagingAutoConfiguration.class })
+    @Import({ WebSocketBrokerConfig.class, LoginAsPrincipal.class })
+    static class RelayNode {
+    }
+
+    /**
+     * Security is not part of these contexts, so take the user from the
+     * CONNECT frame's login header.
+     */
+    static class LoginAsPrincipal implements WebSocketMessageBrokerConfigurer {
+        @Override
+        public void configureClientInboundChannel(ChannelRegistration registration) {
+            registration.interceptors(new ChannelInterceptor() {
+                @Override
+                public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                    StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                    if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
+                        String login = accessor.getLogin();
+                        accessor.setUser(() -> login);
+                    }
+                    return message;
+                }
+            });
+        }
+    }
+}
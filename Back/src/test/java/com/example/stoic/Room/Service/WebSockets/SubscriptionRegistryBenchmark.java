@@ -0,0 +1,123 @@
+package com.example.stoic.Room.Service.WebSockets;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static com.example.stoic.Room.Service.WebSockets.ExactDestinationSubscriptionRegistryTests.message;
+import static com.example.stoic.Room.Service.WebSockets.ExactDestinationSubscriptionRegistryTests.subscribe;
+
+/**
+ * Lookup and disconnect cost of the exact-match registry against Spring's
+ * default one. Every session subscribes to one room topic (about 50
+ * subscribers per room) and to its own notification topic. A second case
+ * has every session subscribe to one shared destination, as all clients do
+ * with the broadcast topic, to time subscribe and unsubscribe as that
+ * destination grows. Each registry is run twice per size and only the second,
+ * warmed-up run is printed.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=SubscriptionRegistryBenchmark
+ */
+@Tag("benchmark")
+class SubscriptionRegistryBenchmark {
+
+    private static final int LOOKUPS = 5_000;
+    // well above the default registry's 1024-entry destination cache, as with
+    // one notification topic per connected user
+    private static final int DISTINCT_DESTINATIONS = 16_384;
+
+    @ParameterizedTest(name = "{0} subscriptions")
+    @ValueSource(ints = { 10_000, 50_000, 100_000 })
+    void compareRegistries(int subscriptions) {
+        for (boolean print : new boolean[] { false, true }) {
+            run("default", DefaultSubscriptionRegistry::new, subscriptions, print);
+            run("exact", ExactDestinationSubscriptionRegistry::new, subscriptions, print);
+        }
+    }
+
+    @ParameterizedTest(name = "{0} sessions on one destination")
+    @ValueSource(ints = { 10_000, 50_000, 100_000 })
+    void compareSharedDestination(int sessions) {
+        for (boolean print : new boolean[] { false, true }) {
+            runShared("default", DefaultSubscriptionRegistry::new, sessions, print);
+            runShared("exact", ExactDestinationSubscriptionRegistry::new, sessions, print);
+        }
+    }
+
+    private static void runShared(String label, Supplier<SubscriptionRegistry> factory, int sessions,
+            boolean print) {
+        SubscriptionRegistry registry = factory.get();
+
+        long start = System.nanoTime();
+        for (int s = 0; s < sessions; s++) {
+            registry.registerSubscription(subscribe("s" + s, "sub-0", "/topic/notifications/broadcast"));
+        }
+        long registerNanos = System.nanoTime() - start;
+
+        Message<?> broadcast = message("/topic/notifications/broadcast");
+        long matched = registry.findSubscriptions(broadcast).size();
+
+        start = System.nanoTime();
+        for (int s = 0; s < sessions; s++) {
+            registry.unregisterAllSubscriptions("s" + s);
+        }
+        long disconnectNanos = System.nanoTime() - start;
+
+        if (!print) {
+            return;
+        }
+        System.out.printf("%7d sessions %-8s subscribe %7.2f us/session  disconnect %7.2f us/session  (%d)%n",
+                sessions, label, registerNanos / 1e3 / sessions, disconnectNanos / 1e3 / sessions, matched);
+    }
+
+    private static void run(String label, Supplier<SubscriptionRegistry> factory, int subscriptions,
+            boolean print) {
+        int sessions = subscriptions / 2;
+        int rooms = Math.max(1, sessions / 50);
+        SubscriptionRegistry registry = factory.get();
+
+        long start = System.nanoTime();
+        for (int s = 0; s < sessions; s++) {
+            registry.registerSubscription(subscribe("s" + s, "sub-0", "/topic/rooms/" + (s % rooms)));
+            registry.registerSubscription(subscribe("s" + s, "sub-1", "/topic/notifications/" + s));
+        }
+        long registerNanos = System.nanoTime() - start;
+
+        Message<?>[] destinations = new Message<?>[DISTINCT_DESTINATIONS];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < destinations.length; i++) {
+            destinations[i] = i % 2 == 0
+                    ? message("/topic/rooms/" + random.nextInt(rooms))
+                    : message("/topic/notifications/" + random.nextInt(sessions));
+        }
+        long matched = 0;
+        for (int i = 0; i < LOOKUPS / 5; i++) { // warm-up
+            matched += registry.findSubscriptions(destinations[i % DISTINCT_DESTINATIONS]).size();
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            matched += registry.findSubscriptions(destinations[i % DISTINCT_DESTINATIONS]).size();
+        }
+        long lookupNanos = System.nanoTime() - start;
+
+        int disconnects = Math.min(sessions, 5_000);
+        start = System.nanoTime();
+        for (int s = 0; s < disconnects; s++) {
+            registry.unregisterAllSubscriptions("s" + s);
+        }
+        long disconnectNanos = System.nanoTime() - start;
+
+        if (!print) {
+            return;
+        }
+        System.out.printf("%7d subs %-8s register %7.1f ms  lookup %8.1f ns/op  disconnect %7.2f us/session  (%d)%n",
+                subscriptions, label, registerNanos / 1e6, (double) lookupNanos / LOOKUPS,
+                disconnectNanos / 1e3 / disconnects, matched);
+    }
+}
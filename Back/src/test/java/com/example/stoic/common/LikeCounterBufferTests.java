@@ -0,0 +1,145 @@
+package com.example.stoic.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LikeCounterBufferTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    // post id -> like_count as the flushes left it
+    private final ConcurrentHashMap<Integer, Long> stored = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private LikeCounterBuffer buffer() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.startsWith("UPDATE post ")) {
+                for (Object[] row : (List<Object[]>) invocation.getArgument(1)) {
+                    stored.merge((Integer) row[1], (Long) row[0], Long::sum);
+                }
+            }
+            return new int[0];
+        });
+        return new LikeCounterBuffer(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new SimpleMeterRegistry(), true);
+    }
+
+    @Test
+    void flushWritesTheNetDeltaAndClearsIt() {
+        LikeCounterBuffer buffer = buffer();
+        buffer.add(LikeCounterBuffer.Target.POST, 1, 1);
+        buffer.add(LikeCounterBuffer.Target.POST, 1, 1);
+        buffer.add(LikeCounterBuffer.Target.POST, 1, -1);
+        buffer.add(LikeCounterBuffer.Target.POST, 2, 1);
+        assertEquals(1, buffer.pending(LikeCounterBuffer.Target.POST, 1));
+
+        buffer.flush();
+
+        assertEquals(1L, stored.get(1));
+        assertEquals(1L, stored.get(2));
+        assertEquals(0, buffer.pending(LikeCounterBuffer.Target.POST, 1));
+    }
+
+    @Test
+    void noDeltaIsLostWhileFlushingConcurrently() throws Exception {
+        LikeCounterBuffer buffer = buffer();
+        int threads = 8;
+        int likesPerThread = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < likesPerThread; i++) {
+                    buffer.add(LikeCounterBuffer.Target.POST, i % 3, 1);
+                }
+                done.countDown();
+            });
+        }
+        AtomicBoolean flushing = new AtomicBoolean(true);
+        Thread flusher = new Thread(() -> {
+            while (flushing.get()) {
+                buffer.flush();
+            }
+        });
+        flusher.start();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        flushing.set(false);
+        flusher.join();
+        pool.shutdown();
+        buffer.flush();
+
+        long total = stored.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals((long) threads * likesPerThread, total);
+    }
+
+    @Test
+    void idleTargetsAreDroppedWithoutLosingLateDeltas() {
+        LikeCounterBuffer buffer = buffer();
+        buffer.add(LikeCounterBuffer.Target.POST, 1, 1);
+        for (int i = 0; i < 25; i++) {
+            buffer.flush();
+        }
+        assertEquals(0, buffer.size());
+
+        buffer.add(LikeCounterBuffer.Target.POST, 1, 1);
+        buffer.flush();
+        assertEquals(2L, stored.get(1));
+    }
+
+    @Test
+    void pendingKeepsCountingDeltasWhileTheirWriteRuns() {
+        LikeCounterBuffer buffer = buffer();
+        AtomicLong seenDuringWrite = new AtomicLong(-1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            seenDuringWrite.set(buffer.pending(LikeCounterBuffer.Target.POST, 1));
+            return new int[0];
+        });
+        buffer.add(LikeCounterBuffer.Target.POST, 1, 3);
+
+        buffer.flush();
+
+        assertEquals(3, seenDuringWrite.get());
+        assertEquals(0, buffer.pending(LikeCounterBuffer.Target.POST, 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aFailedWriteIsRetriedOnceWithTheNewDeltas() {
+        LikeCounterBuffer buffer = buffer();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("deadlock"))
+                .thenAnswer(invocation -> {
+                    for (Object[] row : (List<Object[]>) invocation.getArgument(1)) {
+                        stored.merge((Integer) row[1], (Long) row[0], Long::sum);
+                    }
+                    return new int[0];
+                });
+        buffer.add(LikeCounterBuffer.Target.POST, 1, 2);
+        buffer.flush();
+        assertEquals(2, buffer.pending(LikeCounterBuffer.Target.POST, 1));
+
+        buffer.add(LikeCounterBuffer.Target.POST, 1, 1);
+        buffer.flush();
+
+        assertEquals(3L, stored.get(1));
+        assertEquals(0, buffer.pending(LikeCounterBuffer.Target.POST, 1));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.stoic.common;
+
+import com.example.stoic.Notification.Service.NotificationDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CPU time and allocation per 1,000-recipient notification fan-out, encoding
+ * per recipient (convertAndSendToUser) versus encoding once and splicing ids.
+ * Sends go to a no-op channel so only the encode/send path is measured.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=StompPayloadEncoderBenchmark
+ */
+@Tag("benchmark")
+class StompPayloadEncoderBenchmark {
+
+    private static final int RECIPIENTS = 1_000;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 2_000;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final StompPayloadEncoder encoder = new StompPayloadEncoder(objectMapper);
+    private final SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> true);
+
+    {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        template.setMessageConverter(converter);
+    }
+
+    @Test
+    void encodeOnceVersusPerRecipient() {
+        Runnable perRecipient = () -> {
+            for (int i = 0; i < RECIPIENTS; i++) {
+                NotificationDTO dto = new NotificationDTO(StompPayloadEncoderTests.notification(i));
+                template.convertAndSendToUser("user" + i, "/queue/notifications", dto);
+            }
+        };
+        Runnable encodeOnce = () -> {
+            StompPayloadEncoder.IdTemplate payload = encoder.encodeWithId(
+                    new NotificationDTO(StompPayloadEncoderTests.notification(0)));
+            for (int i = 0; i < RECIPIENTS; i++) {
+                template.send(StompPayloadEncoder.userDestination("user" + i, "/queue/notifications"),
+                        payload.withId(i));
+            }
+        };
+
+        long[] before = measure("per-recipient encode", perRecipient);
+        long[] after = measure("encode once + splice", encodeOnce);
+
+        System.out.printf("saved per %d recipients: %.1f%% CPU, %.1f%% allocation%n", RECIPIENTS,
+                100.0 * (before[0] - after[0]) / before[0], 100.0 * (before[1] - after[1]) / before[1]);
+        assertTrue(after[1] < before[1], "encode-once path should allocate less");
+    }
+
+    /** @return {cpu nanos, allocated bytes} per fan-out */
+    private static long[] measure(String label, Runnable fanout) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            fanout.run();
+        }
+        long thread = Thread.currentThread().getId();
+        long cpu = threads.getCurrentThreadCpuTime();
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            fanout.run();
+        }
+        long cpuPerFanout = (threads.getCurrentThreadCpuTime() - cpu) / MEASURED_ROUNDS;
+        long bytesPerFanout = (threads.getThreadAllocatedBytes(thread) - allocated) / MEASURED_ROUNDS;
+        System.out.printf("%-22s %8.1f us CPU  %10d bytes allocated  per %d recipients%n",
+                label, cpuPerFanout / 1_000.0, bytesPerFanout, RECIPIENTS);
+        return new long[] { cpuPerFanout, bytesPerFanout };
+    }
+}
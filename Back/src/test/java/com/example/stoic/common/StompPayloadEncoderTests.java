@@ -0,0 +1,50 @@
+package com.example.stoic.common;
+
+import com.example.stoic.Notification.Model.Notification;
+import com.example.stoic.Notification.Model.NotificationType;
+import com.example.stoic.Notification.Service.NotificationDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StompPayloadEncoderTests {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final StompPayloadEncoder encoder = new StompPayloadEncoder(objectMapper);
+
+    @Test
+    void splicedIdProducesSameJsonAsEncodingEachPayload() throws Exception {
+        NotificationDTO dto = new NotificationDTO(notification(0));
+        StompPayloadEncoder.IdTemplate template = encoder.encodeWithId(dto);
+
+        Message<byte[]> message = template.withId(4711);
+        dto.setId(4711);
+
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(dto)),
+                objectMapper.readTree(message.getPayload()));
+        assertEquals(MimeTypeUtils.APPLICATION_JSON, message.getHeaders().get(MessageHeaders.CONTENT_TYPE));
+    }
+
+    @Test
+    void buildsUserDestinationLikeConvertAndSendToUser() {
+        assertEquals("/user/a%2Fb/queue/notifications",
+                StompPayloadEncoder.userDestination("a/b", "/queue/notifications"));
+    }
+
+    static Notification notification(int id) {
+        Notification n = new Notification();
+        n.setId(id);
+        n.setTitle("New message in general");
+        n.setType(NotificationType.MESSAGE);
+        n.setContent("ana: see you at 6 \"sharp\"");
+        n.setSentAt(LocalDateTime.of(2025, 3, 1, 18, 0));
+        return n;
+    }
+}
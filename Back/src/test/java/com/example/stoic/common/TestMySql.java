@@ -0,0 +1,23 @@
+package com.example.stoic.common;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * A throwaway MySQL for the @SpringBootTests that write rows, so they never
+ * touch the database from application.properties. Import it and mark the
+ * test {@code @Testcontainers(disabledWithoutDocker = true)}: without Docker
+ * the test is skipped instead of failing.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class TestMySql {
+
+    @Bean
+    @ServiceConnection
+    MySQLContainer<?> mysql() {
+        return new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+    }
+}
@@ -38,6 +38,8 @@ export interface Notification {
   isRead: boolean;
   read?: boolean; // Backend might send 'read' instead of 'isRead'
   createdAt: string;
+  updatedAt?: string; // set when more events were merged into a coalesced row
+  groupCount?: number;
   user?: {
     userId: number;
     username: string;
@@ -85,6 +87,7 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({
   const [isConnected, setIsConnected] = useState(false);
   const stompClient = useRef<Client | null>(null);
   const pollingInterval = useRef<NodeJS.Timeout | null>(null);
+  const mutedTypes = useRef<Set<string>>(new Set());
   const API_BASE_URL = process.env.EXPO_PUBLIC_API_BASE_URL;
 
   // Get user ID on component mount
@@ -105,6 +108,7 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({
   // Initialize notification system when userId is available
   useEffect(() => {
     if (userId) {
+      fetchMutedTypes();
       fetchNotifications();
       connectWebSocket();
       startPolling();
@@ -115,6 +119,52 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({
     };
   }, [userId]);
 
+  // Muted notification types, used to drop broadcasts the server skipped for us
+  const fetchMutedTypes = useCallback(async () => {
+    if (!userId) return;
+    try {
+      const response = await fetch(
+        `${API_BASE_URL}/api/notifications/${userId}/preferences`,
+        { credentials: "include" }
+      );
+      if (!response.ok) throw new Error(`${response.status}`);
+      const { mutedTypes: types } = await response.json();
+      mutedTypes.current = new Set(types ?? []);
+    } catch (error) {
+      console.error("❌ Error fetching notification preferences:", error);
+    }
+  }, [userId]);
+
+  // First inbox page of the broadcast's type; the newest matching row is ours
+  const fetchBroadcastRow = useCallback(
+    async (broadcast: Notification) => {
+      if (!userId) return;
+      try {
+        const response = await fetch(
+          `${API_BASE_URL}/api/notifications/${userId}?limit=20&type=${broadcast.type}`,
+          { credentials: "include" }
+        );
+        if (!response.ok) throw new Error(`${response.status}`);
+        const page: { items: Notification[] } = await response.json();
+        const row = page.items.find(
+          (n) =>
+            n.title === broadcast.title &&
+            (n.message || n.content) === (broadcast.message || broadcast.content)
+        );
+        if (!row) return;
+        addNotification({
+          ...row,
+          title: row.title || "Notification",
+          message: row.message || row.content || "No content",
+          isRead: row.isRead !== undefined ? row.isRead : row.read || false,
+        });
+      } catch (error) {
+        console.error("❌ Error fetching broadcast notification:", error);
+      }
+    },
+    [userId]
+  );
+
   // Real-time WebSocket connection
   const connectWebSocket = useCallback(() => {
     if (!userId || (stompClient.current && stompClient.current.connected))
@@ -135,12 +185,18 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({
           console.log("🚀 WebSocket connected for real-time notifications");
           setIsConnected(true);
 
-          // Subscribe to user-specific notifications
+          // Subscribe to user-specific notifications; the server-side unread
+          // counter (replaces polling /count) is pushed here too, as UNREAD_COUNT
           stompClient.current?.subscribe(
             `/topic/notifications/${userId}`,
             (message) => {
               try {
-                const newNotification: Notification = JSON.parse(message.body);
+                const payload = JSON.parse(message.body);
+                if (payload.type === "UNREAD_COUNT") {
+                  setUnreadCount(payload.unreadCount);
+                  return;
+                }
+                const newNotification: Notification = payload;
                 console.log(
                   "📢 Real-time notification received:",
                   newNotification
@@ -212,6 +268,25 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({
               }
             }
           );
+
+          // Admin broadcasts are published once for everyone, without a row id.
+          // Users who muted the type got no row, so drop it; everyone else
+          // fetches their newest row of that type to get the real one
+          stompClient.current?.subscribe(
+            `/topic/notifications/broadcast`,
+            (message) => {
+              try {
+                const broadcast: Notification = JSON.parse(message.body);
+                if (mutedTypes.current.has(broadcast.type)) {
+                  console.log("🔕 Skipping muted broadcast:", broadcast.type);
+                  return;
+                }
+                fetchBroadcastRow(broadcast);
+              } catch (error) {
+                console.error("❌ Error processing broadcast:", error);
+              }
+            }
+          );
         },
 
         onStompError: (frame) => {
@@ -357,6 +432,22 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({
   // Enhanced addNotification with duplicate prevention
   const addNotification = useCallback((notification: Notification) => {
     setNotifications((prev) => {
+      // A coalesced notification ("X and N others ...") comes back with the same
+      // id each time it grows, stamped with updatedAt only; replace it, keep its
+      // original createdAt and move it to the top
+      const grown = (notification.groupCount ?? 1) > 1
+        ? prev.find((n) => n.id === notification.id)
+        : undefined;
+      if (grown) {
+        return [
+          { ...notification, createdAt: notification.createdAt ?? grown.createdAt },
+          ...prev.filter((n) => n.id !== notification.id),
+        ];
+      }
+      if (!notification.createdAt && notification.updatedAt) {
+        notification = { ...notification, createdAt: notification.updatedAt };
+      }
+
       // Check for duplicates based on ID or timestamp
       const isDuplicate = prev.some(
         (n) =>
@@ -378,7 +469,8 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({
       return [notification, ...prev];
     });
 
-    if (!notification.isRead) {
+    // a grown coalesced row is not a new unread notification
+    if (!notification.isRead && (notification.groupCount ?? 1) <= 1) {
       setUnreadCount((prev) => prev + 1);
     }
   }, []);
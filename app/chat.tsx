@@ -76,6 +76,12 @@ export default function ChatScreen() {
             const m = JSON.parse(msg.body) as Message;
             setMessages((prev) => [...prev, m]);
             scrollRef.current?.scrollToEnd({ animated: true });
+          }, { userId: String(userId) }); // lets the server skip notifications while the room is open
+          // Send failures come only to this user's own sessions
+          client.subscribe(`/user/queue/errors`, (msg) => {
+            const err = JSON.parse(msg.body) as { roomId?: number };
+            if (err.roomId != null && err.roomId !== rid) return;
+            Alert.alert("Error", "Failed to send message");
           });
         },
       });
@@ -58,9 +58,23 @@ interface Comment {
   };
   report?: number;
   likes?: User[];
+  likeCount?: number;
   isLikedByUser?: boolean;
 }
 
+// One row of GET /api/Comments/comments/{postId}?limit=N
+interface CommentSummary {
+  id: number;
+  content: string;
+  date: string;
+  authorId: number;
+  authorName: string;
+  likeCount: number;
+  likedByMe: boolean;
+}
+
+const COMMENTS_PAGE_SIZE = 20;
+
 export default function PostDetailsScreen() {
   const router = useRouter();
   const { postId, roomId } = useLocalSearchParams();
@@ -72,6 +86,7 @@ export default function PostDetailsScreen() {
 
   const [post, setPost] = useState<Post | null>(null);
   const [comments, setComments] = useState<Comment[]>([]);
+  const [commentsCursor, setCommentsCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState(true);
   const [userId, setUserId] = useState<number | null>(null);
   const [newComment, setNewComment] = useState("");
@@ -157,7 +172,17 @@ export default function PostDetailsScreen() {
       );
       if (!response.ok) throw new Error(i18n.t("postDetails.likeCommentError"));
 
-      setRefreshCount((prev) => prev + 1);
+      // the endpoint answers with the new like count; update just this comment
+      // so the pages already loaded stay in place
+      const likeCount: number = await response.json();
+      if (likeCount < 0) throw new Error(i18n.t("postDetails.likeCommentError"));
+      setComments((prev) =>
+        prev.map((c) =>
+          c.id === commentId
+            ? { ...c, likeCount, isLikedByUser: !c.isLikedByUser }
+            : c
+        )
+      );
     } catch (error) {
       Alert.alert(
         i18n.t("postDetails.error"),
@@ -200,13 +225,15 @@ export default function PostDetailsScreen() {
     }
   };
 
-  const fetchComments = async () => {
+  // First page when `after` is absent, otherwise the page after that cursor
+  const fetchComments = async (after?: string) => {
     if (!postId) return;
 
     setCommentsLoading(true);
     try {
+      const cursor = after ? `&after=${encodeURIComponent(after)}` : "";
       const response = await fetch(
-        `${API_BASE_URL}/api/Comments/comments/${postId}`,
+        `${API_BASE_URL}/api/Comments/comments/${postId}?limit=${COMMENTS_PAGE_SIZE}${cursor}`,
         {
           credentials: "include",
           headers: {
@@ -215,7 +242,7 @@ export default function PostDetailsScreen() {
         }
       );
 
-      if (response.status === 204 || response.status === 404) {
+      if (response.status === 404) {
         setComments([]);
         return;
       }
@@ -224,15 +251,20 @@ export default function PostDetailsScreen() {
         throw new Error(i18n.t("postDetails.fetchCommentsError"));
       }
 
-      const data: Comment[] = await response.json();
-      const processedComments = data.map((comment) => ({
-        ...comment,
-        isLikedByUser:
-          userId !== null && Array.isArray(comment.likes)
-            ? comment.likes.some((u: User) => u.userId === userId)
-            : false,
+      const data: { items: CommentSummary[]; nextCursor: string | null } =
+        await response.json();
+      const processedComments: Comment[] = data.items.map((comment) => ({
+        id: comment.id,
+        content: comment.content,
+        date: comment.date,
+        author: { userId: comment.authorId, username: comment.authorName },
+        likeCount: comment.likeCount,
+        isLikedByUser: comment.likedByMe,
       }));
-      setComments(processedComments);
+      setComments((prev) =>
+        after ? [...prev, ...processedComments] : processedComments
+      );
+      setCommentsCursor(data.nextCursor);
 
       Animated.stagger(100, [
         Animated.timing(commentScaleAnim, {
@@ -856,7 +888,8 @@ export default function PostDetailsScreen() {
                             marginLeft: 4,
                           }}
                         >
-                          {comment.likes ? comment.likes.length : 0}
+                          {comment.likeCount ??
+                            (comment.likes ? comment.likes.length : 0)}
                         </Text>
                       </TouchableOpacity>
                     </View>
@@ -877,6 +910,16 @@ export default function PostDetailsScreen() {
                   </LinearGradient>
                 </Animated.View>
               ))}
+              {commentsCursor && (
+                <TouchableOpacity
+                  style={styles.loadMoreComments}
+                  onPress={() => fetchComments(commentsCursor)}
+                >
+                  <Text style={[styles.loadMoreCommentsText, textStyle]}>
+                    {i18n.t("postDetails.loadMoreComments")}
+                  </Text>
+                </TouchableOpacity>
+              )}
             </Animated.View>
           )}
 
@@ -1215,6 +1258,14 @@ const styles = StyleSheet.create({
     marginLeft: 4,
     fontWeight: "600",
   },
+  loadMoreComments: {
+    alignItems: "center",
+    paddingVertical: 12,
+  },
+  loadMoreCommentsText: {
+    color: "#60a5fa",
+    fontWeight: "600",
+  },
   emptyComments: {
     alignItems: "center",
     marginTop: 32,
@@ -63,6 +63,21 @@ interface Post {
   isLikedByUser?: boolean;
 }
 
+// One row of GET /rooms/posts/room/{roomId}?limit=N
+interface PostSummary {
+  id: number;
+  title: string;
+  excerpt: string;
+  authorId: number;
+  authorName: string;
+  date: string;
+  likeCount: number;
+  commentCount: number;
+  likedByMe: boolean;
+}
+
+const POSTS_PAGE_SIZE = 20;
+
 interface Notification {
   id: number;
   title: string;
@@ -94,6 +109,7 @@ export default function RoomScreen() {
   const [notifications, setNotifications] = useState<Notification[]>([]);
   const [unreadCount, setUnreadCount] = useState(0);
   const [posts, setPosts] = useState<Post[]>([]);
+  const [postsCursor, setPostsCursor] = useState<string | null>(null);
   const [newPostTitle, setNewPostTitle] = useState("");
   const [newPostContent, setNewPostContent] = useState("");
   const [isCreatingPost, setIsCreatingPost] = useState(false);
@@ -382,37 +398,33 @@ export default function RoomScreen() {
     }
   };
 
-  const fetchPosts = async (currentUserIdParam?: number) => {
+  // First page when `before` is absent, otherwise the page after that cursor
+  const fetchPosts = async (currentUserIdParam?: number, before?: string) => {
     const uid = currentUserIdParam ?? userId;
     if (!roomId || uid === null) return;
 
     try {
+      const cursor = before ? `&before=${encodeURIComponent(before)}` : "";
       const response = await fetch(
-        `${API_BASE_URL}/rooms/posts/room/${roomId}`,
+        `${API_BASE_URL}/rooms/posts/room/${roomId}?limit=${POSTS_PAGE_SIZE}${cursor}`,
         { credentials: "include" }
       );
-      if (response.status === 204) {
-        setPosts([]);
-        return;
-      }
       if (!response.ok) throw new Error(i18n.t("room.fetchPostsError"));
 
-      const data: Post[] = await response.json();
-      const processed: Post[] = data.map((post) => {
-        const likesArray = Array.isArray((post as any).likes)
-          ? ((post as any).likes as User[])
-          : [];
-        const likesCount = likesArray.length;
-        const likedByMe = likesArray.some((u) => u.userId === uid);
-
-        return {
-          ...post,
-          likes: likesCount,
-          isLikedByUser: likedByMe,
-        };
-      });
+      const data: { items: PostSummary[]; nextCursor: string | null } =
+        await response.json();
+      const processed: Post[] = data.items.map((post) => ({
+        id: post.id,
+        title: post.title,
+        content: post.excerpt,
+        author: { userId: post.authorId, username: post.authorName },
+        date: post.date,
+        likes: post.likeCount,
+        isLikedByUser: post.likedByMe,
+      }));
 
-      setPosts(processed);
+      setPosts((prev) => (before ? [...prev, ...processed] : processed));
+      setPostsCursor(data.nextCursor);
     } catch (error) {
       Alert.alert(
         i18n.t("room.error"),
@@ -1294,6 +1306,16 @@ export default function RoomScreen() {
             </View>
           ))
         )}
+        {postsCursor && (
+          <TouchableOpacity
+            style={styles.loadMoreButton}
+            onPress={() => fetchPosts(undefined, postsCursor)}
+          >
+            <Text style={[styles.loadMoreText, textStyle]}>
+              {i18n.t("room.loadMorePosts")}
+            </Text>
+          </TouchableOpacity>
+        )}
         {((userRole == "ADMIN" && room.type == "PUBLIC") ||
           room.type == "PRIVATE") && (
           <View style={styles.postForm}>
@@ -1492,6 +1514,15 @@ const styles = StyleSheet.create({
     color: "#94a3b8",
     marginVertical: 20,
   },
+  loadMoreButton: {
+    alignItems: "center",
+    paddingVertical: 12,
+    marginBottom: 15,
+  },
+  loadMoreText: {
+    color: "#60a5fa",
+    fontWeight: "600",
+  },
   chatContainer: {
     marginBottom: 20,
   },
@@ -372,6 +372,7 @@ const translations = {
       noMessages: "No messages yet",
       posts: "Posts",
       noPosts: "No posts yet",
+      loadMorePosts: "Load more posts",
       createPost: "Create New Post",
       postTitlePlaceholder: "Post title",
       postContentPlaceholder: "Post content",
@@ -397,6 +398,7 @@ const translations = {
       "addComment": "Add Comment",
       "loadingComments": "Loading comments...",
       "noComments": "No comments yet",
+      "loadMoreComments": "Load more comments",
       "beFirst": "Be the first to share your thoughts",
       "reportComment": "Report Comment",
       "reportConfirm": "Are you sure you want to report this comment for inappropriate content?",
@@ -789,6 +791,7 @@ const translations = {
       noMessages: "لا توجد رسائل بعد",
       posts: "المنشورات",
       noPosts: "لا توجد منشورات بعد",
+      loadMorePosts: "تحميل المزيد من المنشورات",
       createPost: "إنشاء منشور جديد",
       postTitlePlaceholder: "عنوان المنشور",
       postContentPlaceholder: "محتوى المنشور",
@@ -814,6 +817,7 @@ const translations = {
       "addComment": "إضافة تعليق",
       "loadingComments": "جارٍ تحميل التعليقات...",
       "noComments": "لا توجد تعليقات بعد",
+      "loadMoreComments": "تحميل المزيد من التعليقات",
       "beFirst": "كن أول من يشارك أفكاره",
       "reportComment": "الإبلاغ عن تعليق",
       "reportConfirm": "هل أنت متأكد أنك تريد الإبلاغ عن هذا التعليق لمحتوى غير لائق؟",